@@ -0,0 +1,33 @@
+plugins {
+  id("carbon.benchmark-conventions")
+}
+
+description = "JMH benchmarks for CarbonChat's hot paths"
+
+dependencies {
+  jmhImplementation(projects.carbonchatCommon)
+
+  // Provided by the platform at runtime
+  jmhImplementation(platform(libs.adventureBom))
+  jmhImplementation(libs.adventureApi)
+  jmhImplementation(libs.adventureTextSerializerGson)
+  jmhImplementation(libs.adventureTextSerializerPlain)
+  jmhImplementation(libs.adventureTextSerializerLegacy)
+  jmhImplementation(libs.minimessage)
+  jmhImplementation(libs.gson)
+  jmhImplementation(libs.guava)
+  jmhImplementation(platform(libs.log4jBom))
+  jmhImplementation(libs.log4jApi)
+  jmhImplementation(libs.guice)
+  jmhImplementation(libs.assistedInject) {
+    isTransitive = false
+  }
+  jmhImplementation(libs.luckPermsApi)
+  jmhImplementation(libs.caffeine)
+  jmhImplementation(libs.netty)
+
+  // Downloaded at runtime on the platforms
+  jmhImplementation(libs.jdbiCore)
+  jmhImplementation(libs.jdbiObject)
+  jmhImplementation(libs.jdbiPostgres)
+}
@@ -0,0 +1,107 @@
+/*
+ * CarbonChat
+ *
+ * Copyright (c) 2024 Josua Parks (Vicarious)
+ *                    Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.draycia.carbon.benchmarks;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import net.draycia.carbon.common.messaging.packets.ChatMessagePacket;
+import net.kyori.adventure.key.Key;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.framework.qual.DefaultQualifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Writes and reads a chat message packet, with the message as JSON or in the compact component format.
+ */
+@DefaultQualifier(NonNull.class)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChatMessagePacketBenchmark {
+
+    private static final UUID SERVER_ID = new UUID(1, 1);
+
+    @Param({"false", "true"})
+    public boolean compact;
+
+    private @MonotonicNonNull ChatMessagePacket packet;
+    private @MonotonicNonNull ByteBuf encoded;
+
+    @Setup
+    public void setup() {
+        final Component message = Component.text()
+            .append(Component.text("[Global] ", NamedTextColor.GRAY))
+            .append(Component.text("Player0", NamedTextColor.GOLD)
+                .hoverEvent(HoverEvent.showText(Component.text("Click to message")))
+                .clickEvent(ClickEvent.suggestCommand("/msg Player0 ")))
+            .append(Component.text(": ", NamedTextColor.DARK_GRAY))
+            .append(Component.text("hello ").append(Component.text("world").decorate(TextDecoration.BOLD)))
+            .build();
+
+        this.packet = new ChatMessagePacket(SERVER_ID, new UUID(2, 2), "carbon.channel.global", Key.key("carbon", "global"), "Player0", message);
+        this.packet.compactComponents(this.compact);
+        this.encoded = Unpooled.buffer();
+        this.packet.write(this.encoded);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.encoded.release();
+    }
+
+    @Benchmark
+    public int encode() {
+        final ByteBuf buffer = Unpooled.buffer();
+        try {
+            this.packet.write(buffer);
+            return buffer.writerIndex();
+        } finally {
+            buffer.release();
+        }
+    }
+
+    @Benchmark
+    public ChatMessagePacket decode() {
+        return new ChatMessagePacket(SERVER_ID, this.encoded.duplicate());
+    }
+
+}
@@ -0,0 +1,98 @@
+/*
+ * CarbonChat
+ *
+ * Copyright (c) 2024 Josua Parks (Vicarious)
+ *                    Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.draycia.carbon.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import net.draycia.carbon.benchmarks.environment.BenchmarkChatListener;
+import net.draycia.carbon.benchmarks.environment.BenchmarkEnvironment;
+import net.draycia.carbon.benchmarks.environment.BenchmarkPlayer;
+import net.draycia.carbon.common.event.events.CarbonChatEventImpl;
+import net.kyori.adventure.audience.Audience;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.framework.qual.DefaultQualifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * A chat message from the point the platform hands it to Carbon: placeholders and filters, the early chat event,
+ * tag parsing, recipient resolution and the chat event. {@link #chatAndRender} adds rendering for every recipient.
+ */
+@DefaultQualifier(NonNull.class)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChatPipelineBenchmark {
+
+    @Param({"20", "200"})
+    public int players;
+
+    @Param({"hello world", "<red>hello</red> https://example.com"})
+    public String message;
+
+    private @MonotonicNonNull BenchmarkEnvironment environment;
+    private @MonotonicNonNull BenchmarkChatListener listener;
+    private @MonotonicNonNull BenchmarkPlayer sender;
+
+    @Setup
+    public void setup() throws IOException {
+        this.environment = BenchmarkEnvironment.create(this.players);
+        this.listener = this.environment.injector().getInstance(BenchmarkChatListener.class);
+        this.sender = this.environment.player(0);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        this.environment.close();
+    }
+
+    @Benchmark
+    public @Nullable CarbonChatEventImpl chat() {
+        return this.listener.chat(this.sender, this.message);
+    }
+
+    @Benchmark
+    public void chatAndRender(final Blackhole blackhole) {
+        final @Nullable CarbonChatEventImpl event = this.listener.chat(this.sender, this.message);
+        if (event == null) {
+            return;
+        }
+        for (final Audience recipient : event.recipients()) {
+            blackhole.consume(event.renderFor(recipient));
+        }
+    }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * CarbonChat
+ *
+ * Copyright (c) 2024 Josua Parks (Vicarious)
+ *                    Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.draycia.carbon.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import net.draycia.carbon.benchmarks.environment.BenchmarkEnvironment;
+import net.draycia.carbon.benchmarks.environment.BenchmarkPlayer;
+import net.draycia.carbon.common.messages.CarbonMessageSource;
+import net.draycia.carbon.common.messages.SourcedAudience;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.framework.qual.DefaultQualifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@DefaultQualifier(NonNull.class)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageSourceBenchmark {
+
+    private static final String KEY = "channel.change";
+
+    /**
+     * The receiver's locale, {@code none} falls back to the default locale.
+     */
+    @Param({"none", "en_US", "ja_JP"})
+    public String locale;
+
+    private @MonotonicNonNull BenchmarkEnvironment environment;
+    private @MonotonicNonNull CarbonMessageSource messageSource;
+    private @MonotonicNonNull BenchmarkPlayer receiver;
+    private @MonotonicNonNull SourcedAudience sourced;
+
+    @Setup
+    public void setup() throws IOException {
+        // the environment gives players no locale, en_US and ja_JP in turn
+        this.environment = BenchmarkEnvironment.create(3);
+        this.messageSource = this.environment.injector().getInstance(CarbonMessageSource.class);
+        this.receiver = this.environment.player(switch (this.locale) {
+            case "none" -> 0;
+            case "en_US" -> 1;
+            case "ja_JP" -> 2;
+            default -> throw new IllegalArgumentException(this.locale);
+        });
+        this.sourced = SourcedAudience.of(this.environment.player(0), this.receiver);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        this.environment.close();
+    }
+
+    @Benchmark
+    public String player() {
+        return this.messageSource.messageOf(this.receiver, KEY);
+    }
+
+    @Benchmark
+    public String sourced() {
+        return this.messageSource.messageOf(this.sourced, KEY);
+    }
+
+    @Benchmark
+    public String console() {
+        return this.messageSource.messageOf(this.environment.server().console(), KEY);
+    }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * CarbonChat
+ *
+ * Copyright (c) 2024 Josua Parks (Vicarious)
+ *                    Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.draycia.carbon.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import net.draycia.carbon.common.messages.CarbonMessageRenderer;
+import net.draycia.carbon.common.messages.MessageTemplates;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.Tag;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.framework.qual.DefaultQualifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Renders a message format with its placeholders from a {@link MessageTemplates} template, against parsing it with
+ * MiniMessage each time like the renderers did before templates.
+ */
+@DefaultQualifier(NonNull.class)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageTemplatesBenchmark {
+
+    @Param({
+        "<<username>> <message>",
+        "<gray>[<green>Global</green>]</gray> <hover:show_text:'<username>'><display_name></hover><dark_gray>: <white><message>"
+    })
+    public String format;
+
+    private final MessageTemplates templates = new MessageTemplates(MiniMessage.miniMessage());
+    private @MonotonicNonNull Map<String, ?> placeholders;
+    private @MonotonicNonNull TagResolver resolver;
+
+    @Setup
+    public void setup() {
+        this.placeholders = Map.of(
+            "username", Tag.preProcessParsed("Player0"),
+            "display_name", Tag.selfClosingInserting(Component.text("Player0")),
+            "message", Tag.selfClosingInserting(Component.text("hello world"))
+        );
+
+        final TagResolver.Builder builder = TagResolver.builder();
+        CarbonMessageRenderer.addResolved(builder, this.placeholders);
+        this.resolver = builder.build();
+    }
+
+    @Benchmark
+    public @Nullable Component templates() {
+        return this.templates.render(this.format, this.placeholders);
+    }
+
+    @Benchmark
+    public Component miniMessage() {
+        return MiniMessage.miniMessage().deserialize(this.format, this.resolver);
+    }
+
+}
@@ -0,0 +1,80 @@
+/*
+ * CarbonChat
+ *
+ * Copyright (c) 2024 Josua Parks (Vicarious)
+ *                    Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.draycia.carbon.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import net.draycia.carbon.common.messages.TagPermissions;
+import net.kyori.adventure.text.Component;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.framework.qual.DefaultQualifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@DefaultQualifier(NonNull.class)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TagPermissionsBenchmark {
+
+    @Param({
+        "hello world",
+        "<red>hello</red> <bold>world</bold>",
+        "<gradient:red:blue>hello world</gradient> <click:open_url:'https://example.com'>link</click>"
+    })
+    public String message;
+
+    /**
+     * Which tag permissions the sender has: {@code none}, only {@code color}, or {@code all}.
+     */
+    @Param({"none", "color", "all"})
+    public String granted;
+
+    private @MonotonicNonNull Predicate<String> permission;
+
+    @Setup
+    public void setup() {
+        this.permission = switch (this.granted) {
+            case "none" -> node -> false;
+            case "color" -> node -> node.equals(TagPermissions.MESSAGE + ".color");
+            case "all" -> node -> true;
+            default -> throw new IllegalArgumentException(this.granted);
+        };
+    }
+
+    @Benchmark
+    public Component parseTags() {
+        return TagPermissions.parseTags(TagPermissions.MESSAGE, this.message, this.permission);
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * CarbonChat
+ *
+ * Copyright (c) 2024 Josua Parks (Vicarious)
+ *                    Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.draycia.carbon.benchmarks;
+
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import net.draycia.carbon.benchmarks.environment.BenchmarkEnvironment;
+import net.draycia.carbon.common.users.Backing;
+import net.draycia.carbon.common.users.CarbonPlayerCommon;
+import net.draycia.carbon.common.users.UserManagerInternal;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.framework.qual.DefaultQualifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Looks up already loaded users from several threads at once, as chat, commands and placeholders do.
+ */
+@DefaultQualifier(NonNull.class)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class UserLookupBenchmark {
+
+    @Param({"100", "1000"})
+    public int users;
+
+    private @MonotonicNonNull BenchmarkEnvironment environment;
+    private @MonotonicNonNull UserManagerInternal<CarbonPlayerCommon> backing;
+    private @MonotonicNonNull UserManagerInternal<?> platform;
+
+    @Setup
+    public void setup() throws IOException {
+        this.environment = BenchmarkEnvironment.create(0);
+        this.backing = this.environment.injector().getInstance(Key.get(new TypeLiteral<UserManagerInternal<CarbonPlayerCommon>>() {}, Backing.class));
+        this.platform = this.environment.injector().getInstance(Key.get(new TypeLiteral<UserManagerInternal<?>>() {}));
+
+        final List<UUID> ids = new ArrayList<>(this.users);
+        for (int i = 0; i < this.users; i++) {
+            ids.add(BenchmarkEnvironment.playerId(i));
+        }
+        CompletableFuture.allOf(this.platform.users(ids).values().toArray(CompletableFuture[]::new)).join();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        this.environment.close();
+    }
+
+    @Benchmark
+    public CompletableFuture<CarbonPlayerCommon> backingUser() {
+        return this.backing.user(this.randomId());
+    }
+
+    @Benchmark
+    public CompletableFuture<?> platformUser() {
+        return this.platform.user(this.randomId());
+    }
+
+    private UUID randomId() {
+        return BenchmarkEnvironment.playerId(ThreadLocalRandom.current().nextInt(this.users));
+    }
+
+}
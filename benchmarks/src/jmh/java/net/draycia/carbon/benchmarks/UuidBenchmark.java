@@ -0,0 +1,74 @@
+/*
+ * CarbonChat
+ *
+ * Copyright (c) 2024 Josua Parks (Vicarious)
+ *                    Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.draycia.carbon.benchmarks;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import net.draycia.carbon.common.util.FastUuidSansHyphens;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.framework.qual.DefaultQualifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link FastUuidSansHyphens} against the JDK, which needs the hyphens put back (or taken out) first.
+ */
+@DefaultQualifier(NonNull.class)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UuidBenchmark {
+
+    private final UUID uuid = UUID.fromString("069a79f4-44e9-4726-a5be-fca90e38aaf5");
+    private final String withoutHyphens = "069a79f444e94726a5befca90e38aaf5";
+
+    @Benchmark
+    public UUID parseFast() {
+        return FastUuidSansHyphens.parseUuid(this.withoutHyphens);
+    }
+
+    @Benchmark
+    public UUID parseJdk() {
+        final String s = this.withoutHyphens;
+        return UUID.fromString(s.substring(0, 8) + '-' + s.substring(8, 12) + '-' + s.substring(12, 16)
+            + '-' + s.substring(16, 20) + '-' + s.substring(20));
+    }
+
+    @Benchmark
+    public String toStringFast() {
+        return FastUuidSansHyphens.toString(this.uuid);
+    }
+
+    @Benchmark
+    public String toStringJdk() {
+        return this.uuid.toString().replace("-", "");
+    }
+
+}
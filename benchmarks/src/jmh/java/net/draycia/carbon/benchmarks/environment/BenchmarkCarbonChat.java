@@ -0,0 +1,73 @@
+/*
+ * CarbonChat
+ *
+ * Copyright (c) 2024 Josua Parks (Vicarious)
+ *                    Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.draycia.carbon.benchmarks.environment;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import net.draycia.carbon.api.CarbonChat;
+import net.draycia.carbon.api.channels.ChannelRegistry;
+import net.draycia.carbon.api.event.CarbonEventHandler;
+import net.draycia.carbon.api.users.UserManager;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+@Singleton
+@DefaultQualifier(NonNull.class)
+public final class BenchmarkCarbonChat implements CarbonChat {
+
+    private final CarbonEventHandler eventHandler;
+    private final BenchmarkServer server;
+    private final UserManager<?> userManager;
+    private final ChannelRegistry channelRegistry;
+
+    @Inject
+    private BenchmarkCarbonChat(
+        final CarbonEventHandler eventHandler,
+        final BenchmarkServer server,
+        final UserManager<?> userManager,
+        final ChannelRegistry channelRegistry
+    ) {
+        this.eventHandler = eventHandler;
+        this.server = server;
+        this.userManager = userManager;
+        this.channelRegistry = channelRegistry;
+    }
+
+    @Override
+    public CarbonEventHandler eventHandler() {
+        return this.eventHandler;
+    }
+
+    @Override
+    public BenchmarkServer server() {
+        return this.server;
+    }
+
+    @Override
+    public UserManager<?> userManager() {
+        return this.userManager;
+    }
+
+    @Override
+    public ChannelRegistry channelRegistry() {
+        return this.channelRegistry;
+    }
+
+}
@@ -0,0 +1,54 @@
+/*
+ * CarbonChat
+ *
+ * Copyright (c) 2024 Josua Parks (Vicarious)
+ *                    Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.draycia.carbon.benchmarks.environment;
+
+import com.google.inject.Inject;
+import net.draycia.carbon.api.event.CarbonEventHandler;
+import net.draycia.carbon.api.users.CarbonPlayer;
+import net.draycia.carbon.common.config.ConfigManager;
+import net.draycia.carbon.common.event.events.CarbonChatEventImpl;
+import net.draycia.carbon.common.listeners.ChatListenerInternal;
+import net.draycia.carbon.common.messages.CarbonMessages;
+import net.draycia.carbon.common.metrics.CarbonMetrics;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+/**
+ * Exposes the platform independent part of chat handling, as a platform's chat listener would call it.
+ */
+@DefaultQualifier(NonNull.class)
+public final class BenchmarkChatListener extends ChatListenerInternal {
+
+    @Inject
+    private BenchmarkChatListener(
+        final CarbonEventHandler carbonEventHandler,
+        final CarbonMessages carbonMessages,
+        final ConfigManager configManager,
+        final CarbonMetrics metrics
+    ) {
+        super(carbonEventHandler, carbonMessages, configManager, metrics);
+    }
+
+    public @Nullable CarbonChatEventImpl chat(final CarbonPlayer sender, final String message) {
+        return this.prepareAndEmitChatEvent(sender, message, null);
+    }
+
+}
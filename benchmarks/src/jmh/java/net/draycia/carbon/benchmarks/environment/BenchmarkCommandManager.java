@@ -0,0 +1,50 @@
+/*
+ * CarbonChat
+ *
+ * Copyright (c) 2024 Josua Parks (Vicarious)
+ *                    Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.draycia.carbon.benchmarks.environment;
+
+import net.draycia.carbon.common.command.Commander;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.framework.qual.DefaultQualifier;
+import org.incendo.cloud.CommandManager;
+import org.incendo.cloud.execution.ExecutionCoordinator;
+import org.incendo.cloud.internal.CommandRegistrationHandler;
+import org.incendo.cloud.meta.CommandMeta;
+
+/**
+ * Builds the command tree like a platform would, without registering anything anywhere.
+ */
+@DefaultQualifier(NonNull.class)
+final class BenchmarkCommandManager extends CommandManager<Commander> {
+
+    BenchmarkCommandManager(final ExecutionCoordinator<Commander> executionCoordinator) {
+        super(executionCoordinator, CommandRegistrationHandler.nullCommandRegistrationHandler());
+    }
+
+    @Override
+    public boolean hasPermission(final Commander sender, final String permission) {
+        return sender.hasPermission(permission);
+    }
+
+    @Override
+    public CommandMeta createDefaultCommandMeta() {
+        return CommandMeta.empty();
+    }
+
+}
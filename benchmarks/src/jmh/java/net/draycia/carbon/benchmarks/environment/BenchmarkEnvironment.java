@@ -0,0 +1,136 @@
+/*
+ * CarbonChat
+ *
+ * Copyright (c) 2024 Josua Parks (Vicarious)
+ *                    Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.draycia.carbon.benchmarks.environment;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.stream.Stream;
+import net.draycia.carbon.common.channels.CarbonChannelRegistry;
+import net.draycia.carbon.common.channels.ConfigChatChannel;
+import net.draycia.carbon.common.command.ExecutionCoordinatorHolder;
+import net.draycia.carbon.common.messages.CarbonMessages;
+import net.draycia.carbon.common.users.CarbonPlayerCommon;
+import net.draycia.carbon.common.users.PlatformUserManager;
+import net.draycia.carbon.common.users.UserManagerInternal;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+/**
+ * Boots the common module against the benchmark stand-ins, with default configs written to a temporary
+ * data directory, and puts a number of players online.
+ *
+ * <p>Players can hear every config channel and have no other permissions. Their locales rotate between
+ * none, en_US and ja_JP so renders are split across more than one bucket.</p>
+ */
+@DefaultQualifier(NonNull.class)
+public final class BenchmarkEnvironment implements AutoCloseable {
+
+    private static final List<@Nullable Locale> LOCALES = Arrays.asList(null, Locale.US, Locale.JAPAN);
+
+    private final Path dataDirectory;
+    private final Injector injector;
+    private final BenchmarkServer server;
+    private final CarbonChannelRegistry channelRegistry;
+
+    private BenchmarkEnvironment(final Path dataDirectory, final Injector injector) {
+        this.dataDirectory = dataDirectory;
+        this.injector = injector;
+        this.server = injector.getInstance(BenchmarkServer.class);
+        this.channelRegistry = injector.getInstance(CarbonChannelRegistry.class);
+    }
+
+    public static BenchmarkEnvironment create(final int players) throws IOException {
+        final Path dataDirectory = Files.createTempDirectory("carbon-benchmarks");
+        final BenchmarkEnvironment environment = new BenchmarkEnvironment(dataDirectory, Guice.createInjector(new BenchmarkModule(dataDirectory)));
+
+        environment.channelRegistry.loadConfigChannels(environment.injector.getInstance(CarbonMessages.class));
+        for (int i = 0; i < players; i++) {
+            environment.addPlayer(i);
+        }
+        environment.channelRegistry.indexListeners();
+
+        return environment;
+    }
+
+    private void addPlayer(final int index) {
+        final CarbonPlayerCommon common = new CarbonPlayerCommon("Player" + index, playerId(index));
+        this.injector.injectMembers(common);
+
+        final BenchmarkPlayer player = (BenchmarkPlayer) this.injector.getInstance(PlatformUserManager.PlayerFactory.class).wrap(common);
+        player.permissions(permission -> permission.startsWith("carbon.channel."));
+        player.locale(LOCALES.get(index % LOCALES.size()));
+        this.server.addPlayer(player);
+    }
+
+    /**
+     * The id of the player at the index, also valid for players that were never put online.
+     *
+     * @param index the player's index
+     * @return the player's id
+     */
+    public static UUID playerId(final int index) {
+        return new UUID(0xCA4B0L, index);
+    }
+
+    public Injector injector() {
+        return this.injector;
+    }
+
+    public BenchmarkServer server() {
+        return this.server;
+    }
+
+    public BenchmarkPlayer player(final int index) {
+        return this.server.players().get(index);
+    }
+
+    public ConfigChatChannel defaultChannel() {
+        return (ConfigChatChannel) this.channelRegistry.defaultChannel();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.injector.getInstance(Key.get(new TypeLiteral<UserManagerInternal<?>>() {})).shutdown();
+        this.injector.getInstance(ExecutionCoordinatorHolder.class).shutdown();
+
+        try (final Stream<Path> paths = Files.walk(this.dataDirectory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (final IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        }
+    }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * CarbonChat
+ *
+ * Copyright (c) 2024 Josua Parks (Vicarious)
+ *                    Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.draycia.carbon.benchmarks.environment;
+
+import com.google.inject.Provides;
+import com.google.inject.Singleton;
+import java.nio.file.Path;
+import net.draycia.carbon.api.CarbonChat;
+import net.draycia.carbon.api.CarbonServer;
+import net.draycia.carbon.common.CarbonCommonModule;
+import net.draycia.carbon.common.CarbonPlatformModule;
+import net.draycia.carbon.common.DataDirectory;
+import net.draycia.carbon.common.PlatformScheduler;
+import net.draycia.carbon.common.command.Commander;
+import net.draycia.carbon.common.command.ExecutionCoordinatorHolder;
+import net.draycia.carbon.common.messages.CarbonMessageRenderer;
+import net.draycia.carbon.common.users.PlatformUserManager;
+import net.draycia.carbon.common.users.ProfileResolver;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.framework.qual.DefaultQualifier;
+import org.incendo.cloud.CommandManager;
+
+@DefaultQualifier(NonNull.class)
+final class BenchmarkModule extends CarbonPlatformModule {
+
+    private final Logger logger = LogManager.getLogger("carbonchat-benchmarks");
+    private final Path dataDirectory;
+
+    BenchmarkModule(final Path dataDirectory) {
+        this.dataDirectory = dataDirectory;
+    }
+
+    @Provides
+    @Singleton
+    public CommandManager<Commander> createCommandManager(final ExecutionCoordinatorHolder executionCoordinatorHolder) {
+        return new BenchmarkCommandManager(executionCoordinatorHolder.executionCoordinator());
+    }
+
+    @Override
+    protected void configurePlatform() {
+        this.install(new CarbonCommonModule());
+
+        this.bind(CarbonChat.class).to(BenchmarkCarbonChat.class);
+        this.bind(CarbonServer.class).to(BenchmarkServer.class);
+        this.bind(ProfileResolver.class).to(BenchmarkProfileResolver.class);
+        this.bind(Path.class).annotatedWith(DataDirectory.class).toInstance(this.dataDirectory);
+        this.bind(Logger.class).toInstance(this.logger);
+        this.bind(PlatformScheduler.class).to(PlatformScheduler.RunImmediately.class);
+        this.install(PlatformUserManager.PlayerFactory.moduleFor(BenchmarkPlayer.class));
+        this.bind(CarbonMessageRenderer.class).to(BenchmarkMessageRenderer.class);
+    }
+
+}
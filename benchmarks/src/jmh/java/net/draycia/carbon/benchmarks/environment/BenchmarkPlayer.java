@@ -0,0 +1,112 @@
+/*
+ * CarbonChat
+ *
+ * Copyright (c) 2024 Josua Parks (Vicarious)
+ *                    Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.draycia.carbon.benchmarks.environment;
+
+import com.google.inject.assistedinject.Assisted;
+import com.google.inject.assistedinject.AssistedInject;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Predicate;
+import net.draycia.carbon.api.users.CarbonPlayer;
+import net.draycia.carbon.api.util.InventorySlot;
+import net.draycia.carbon.common.users.CarbonPlayerCommon;
+import net.draycia.carbon.common.users.WrappedCarbonPlayer;
+import net.draycia.carbon.common.util.EmptyAudienceWithPointers;
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.audience.ForwardingAudience;
+import net.kyori.adventure.text.Component;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.framework.qual.DefaultQualifier;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An always online player whose permissions and locale are set by the benchmark instead of LuckPerms and the client.
+ */
+@DefaultQualifier(NonNull.class)
+public final class BenchmarkPlayer extends WrappedCarbonPlayer implements ForwardingAudience.Single {
+
+    private volatile Predicate<String> permissions = permission -> false;
+    private volatile @Nullable Locale locale = null;
+    private volatile @MonotonicNonNull Audience audience = null;
+
+    @AssistedInject
+    private BenchmarkPlayer(@Assisted final CarbonPlayerCommon carbonPlayerCommon) {
+        super(carbonPlayerCommon);
+    }
+
+    public void permissions(final Predicate<String> permissions) {
+        this.permissions = permissions;
+    }
+
+    public void locale(final @Nullable Locale locale) {
+        this.locale = locale;
+    }
+
+    @Override
+    public @NotNull Audience audience() {
+        if (this.audience == null) {
+            this.audience = EmptyAudienceWithPointers.forCarbonPlayer(this);
+        }
+        return this.audience;
+    }
+
+    @Override
+    public boolean hasPermission(final String permission) {
+        return this.permissions.test(permission);
+    }
+
+    @Override
+    public boolean vanished() {
+        return false;
+    }
+
+    @Override
+    public @Nullable Locale locale() {
+        return this.locale;
+    }
+
+    @Override
+    public double distanceSquaredFrom(final CarbonPlayer other) {
+        return -1;
+    }
+
+    @Override
+    public boolean sameWorldAs(final CarbonPlayer other) {
+        return true;
+    }
+
+    @Override
+    protected Optional<Component> platformDisplayName() {
+        return Optional.empty();
+    }
+
+    @Override
+    public @Nullable Component createItemHoverComponent(final InventorySlot slot) {
+        return null;
+    }
+
+    @Override
+    public boolean online() {
+        return true;
+    }
+
+}
@@ -0,0 +1,56 @@
+/*
+ * CarbonChat
+ *
+ * Copyright (c) 2024 Josua Parks (Vicarious)
+ *                    Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.draycia.carbon.benchmarks.environment;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import net.draycia.carbon.common.users.ProfileResolver;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+/**
+ * Resolves nothing, benchmarks never reach out to Mojang.
+ */
+@Singleton
+@DefaultQualifier(NonNull.class)
+public final class BenchmarkProfileResolver implements ProfileResolver {
+
+    @Inject
+    private BenchmarkProfileResolver() {
+    }
+
+    @Override
+    public CompletableFuture<@Nullable UUID> resolveUUID(final String username, final boolean cacheOnly) {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<@Nullable String> resolveName(final UUID uuid, final boolean cacheOnly) {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public void shutdown() {
+    }
+
+}
@@ -0,0 +1,65 @@
+/*
+ * CarbonChat
+ *
+ * Copyright (c) 2024 Josua Parks (Vicarious)
+ *                    Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.draycia.carbon.benchmarks.environment;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import net.draycia.carbon.api.CarbonServer;
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.audience.ForwardingAudience;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.framework.qual.DefaultQualifier;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A server without a platform behind it. Players are added by {@link BenchmarkEnvironment}.
+ */
+@Singleton
+@DefaultQualifier(NonNull.class)
+public final class BenchmarkServer implements CarbonServer, ForwardingAudience {
+
+    private final List<BenchmarkPlayer> players = new CopyOnWriteArrayList<>();
+
+    @Inject
+    private BenchmarkServer() {
+    }
+
+    void addPlayer(final BenchmarkPlayer player) {
+        this.players.add(player);
+    }
+
+    @Override
+    public @NotNull Iterable<? extends Audience> audiences() {
+        return this.players;
+    }
+
+    @Override
+    public Audience console() {
+        return Audience.empty();
+    }
+
+    @Override
+    public List<BenchmarkPlayer> players() {
+        return this.players;
+    }
+
+}
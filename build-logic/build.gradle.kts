@@ -17,6 +17,7 @@ dependencies {
   implementation(libs.configurateYaml)
   implementation(libs.gremlin.gradle)
   implementation(libs.run.task)
+  implementation(libs.jmh.gradle.plugin)
 
   implementation(libs.pluginYml)
   // Implementation dependencies of plugin-yml
@@ -0,0 +1,15 @@
+plugins {
+  id("carbon.base-conventions")
+  id("me.champeau.jmh")
+}
+
+jmh {
+  // also selects the jmh-core and annotation processor versions
+  jmhVersion.set(libs.versions.jmh)
+  // JSON results can be diffed release to release, e.g. with jmh.morethan.io
+  resultFormat.set("JSON")
+  resultsFile.set(layout.buildDirectory.file("reports/jmh/results.json"))
+  humanOutputFile.set(layout.buildDirectory.file("reports/jmh/human.txt"))
+  // -PjmhIncludes=ChatPipeline runs a single suite
+  providers.gradleProperty("jmhIncludes").orNull?.let { includes.add(it) }
+}
@@ -69,4 +69,8 @@ dependencies {
 
   // Plugins
   compileOnly(libs.miniplaceholders)
+
+  testImplementation(platform(libs.junitBom))
+  testImplementation(libs.junitJupiter)
+  testRuntimeOnly(libs.junitPlatformLauncher)
 }
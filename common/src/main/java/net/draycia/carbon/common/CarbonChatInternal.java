@@ -39,8 +39,8 @@ import net.draycia.carbon.common.integration.Integration;
 import net.draycia.carbon.common.listeners.Listener;
 import net.draycia.carbon.common.messages.CarbonMessages;
 import net.draycia.carbon.common.messaging.MessagingManager;
-import net.draycia.carbon.common.messaging.packets.PacketFactory;
-import net.draycia.carbon.common.users.PlayerUtils;
+import net.draycia.carbon.common.metrics.PrometheusEndpoint;
+import net.draycia.carbon.common.users.NetworkUsers;
 import net.draycia.carbon.common.users.ProfileCache;
 import net.draycia.carbon.common.users.ProfileResolver;
 import net.draycia.carbon.common.users.UserManagerInternal;
@@ -104,17 +104,18 @@ public abstract class CarbonChatInternal implements CarbonChat {
         final Set<CarbonCommand> commands = this.injector.getInstance(Key.get(new TypeLiteral<Set<CarbonCommand>>() {}));
         CloudUtils.registerCommands(commands, this.injector.getInstance(ConfigManager.class).loadCommandSettings());
 
+        // only players with unsaved changes, spread over several runs
         this.periodicTasks.scheduleAtFixedRate(
-            () -> PlayerUtils.saveLoggedInPlayers(this.carbonServer, this.userManager, this.logger),
-            5,
-            5,
-            TimeUnit.MINUTES
-        );
-        this.periodicTasks.scheduleAtFixedRate(
-            this.profileCache::save,
+            this.userManager::saveDirty,
             15,
             15,
-            TimeUnit.MINUTES
+            TimeUnit.SECONDS
+        );
+        this.periodicTasks.scheduleAtFixedRate(
+            this.profileCache::flush,
+            30,
+            30,
+            TimeUnit.SECONDS
         );
         this.periodicTasks.scheduleAtFixedRate(
             this.userManager::cleanup,
@@ -122,6 +123,13 @@ public abstract class CarbonChatInternal implements CarbonChat {
             30,
             TimeUnit.SECONDS
         );
+        // fallback for permission changes LuckPerms doesn't announce, see PermissionChangeListener
+        this.periodicTasks.scheduleAtFixedRate(
+            this.channelRegistry::indexListeners,
+            10,
+            10,
+            TimeUnit.SECONDS
+        );
 
         // Integration
         final Set<Integration> integrations = this.injector().getInstance(Key.get(new TypeLiteral<>() {}));
@@ -137,7 +145,12 @@ public abstract class CarbonChatInternal implements CarbonChat {
         // Load channels
         this.channelRegistry().loadConfigChannels(this.carbonMessages);
 
+        // Players already online (e.g. after a reload) don't fire join events
+        this.injector.getInstance(NetworkUsers.class).indexLocalPlayers();
+
         this.messagingManager.get();
+
+        this.injector.getInstance(PrometheusEndpoint.class).start();
     }
 
     protected final void checkVersion() {
@@ -152,7 +165,8 @@ public abstract class CarbonChatInternal implements CarbonChat {
     }
 
     protected void shutdown() {
-        this.messagingManager.get().queuePacket(() -> this.injector.getInstance(PacketFactory.class).clearLocalPlayersPacket());
+        this.injector.getInstance(PrometheusEndpoint.class).stop();
+        this.injector.getInstance(NetworkUsers.class).clearLocalPlayers();
         this.messagingManager.get().onShutdown();
         ConcurrentUtil.shutdownExecutor(this.periodicTasks, TimeUnit.MILLISECONDS, 500);
         this.profileCache.save();
@@ -73,6 +73,7 @@ import net.draycia.carbon.common.listeners.ItemLinkHandler;
 import net.draycia.carbon.common.listeners.Listener;
 import net.draycia.carbon.common.listeners.MessagePacketHandler;
 import net.draycia.carbon.common.listeners.MuteHandler;
+import net.draycia.carbon.common.listeners.PermissionChangeListener;
 import net.draycia.carbon.common.listeners.PingHandler;
 import net.draycia.carbon.common.listeners.RadiusListener;
 import net.draycia.carbon.common.messages.CarbonMessageRenderer;
@@ -217,6 +218,7 @@ public final class CarbonCommonModule extends AbstractModule {
         listeners.addBinding().to(ItemLinkHandler.class);
         listeners.addBinding().to(MessagePacketHandler.class);
         listeners.addBinding().to(MuteHandler.class);
+        listeners.addBinding().to(PermissionChangeListener.class);
         listeners.addBinding().to(PingHandler.class);
         listeners.addBinding().to(RadiusListener.class);
     }
@@ -37,6 +37,7 @@ import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
@@ -57,6 +58,7 @@ import net.draycia.carbon.common.event.events.ChannelRegisterEventImpl;
 import net.draycia.carbon.common.event.events.ChannelSwitchEventImpl;
 import net.draycia.carbon.common.listeners.ChatListenerInternal;
 import net.draycia.carbon.common.messages.CarbonMessages;
+import net.draycia.carbon.common.metrics.CarbonMetrics;
 import net.draycia.carbon.common.users.ConsoleCarbonPlayer;
 import net.draycia.carbon.common.util.Exceptions;
 import net.draycia.carbon.common.util.FileUtil;
@@ -111,9 +113,10 @@ public class CarbonChannelRegistry extends ChatListenerInternal implements Chann
         final Logger logger,
         final ConfigManager config,
         final CarbonMessages carbonMessages,
-        final CarbonEventHandler events
+        final CarbonEventHandler events,
+        final CarbonMetrics metrics
     ) {
-        super(events, carbonMessages, config);
+        super(events, carbonMessages, config, metrics);
         this.configChannelDir = dataDirectory.resolve("channels");
         this.injector = injector;
         this.logger = logger;
@@ -342,7 +345,7 @@ public class CarbonChannelRegistry extends ChatListenerInternal implements Chann
         }
 
         for (final Audience recipient : chatEvent.recipients()) {
-            recipient.sendMessage(chatEvent.renderFor(recipient));
+            recipient.sendMessage(this.renderFor(chatEvent, recipient));
         }
     }
 
@@ -491,6 +494,38 @@ public class CarbonChannelRegistry extends ChatListenerInternal implements Chann
         throw new NoSuchElementException("No channel registered with key '" + key.asString() + "'");
     }
 
+    /**
+     * Re-checks the player against the listener index of every config channel.
+     *
+     * @param player the online player
+     */
+    public void updateListener(final CarbonPlayer player) {
+        for (final Key key : this.channelRegistry.keys()) {
+            if (this.channel(key) instanceof ConfigChatChannel configChannel) {
+                configChannel.updateListener(player);
+            }
+        }
+    }
+
+    public void removeListener(final UUID id) {
+        for (final Key key : this.channelRegistry.keys()) {
+            if (this.channel(key) instanceof ConfigChatChannel configChannel) {
+                configChannel.removeListener(id);
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the listener index of every config channel, picking up permission changes.
+     */
+    public void indexListeners() {
+        for (final Key key : this.channelRegistry.keys()) {
+            if (this.channel(key) instanceof ConfigChatChannel configChannel) {
+                configChannel.indexListeners();
+            }
+        }
+    }
+
     @Override
     public void allKeys(final Consumer<Key> action) {
         for (final Key key : this.channelRegistry.keys()) {
@@ -23,15 +23,21 @@ import com.google.inject.Inject;
 import io.leangen.geantyref.TypeToken;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import net.draycia.carbon.api.CarbonServer;
 import net.draycia.carbon.api.channels.ChannelPermissionResult;
 import net.draycia.carbon.api.channels.ChatChannel;
 import net.draycia.carbon.api.users.CarbonPlayer;
 import net.draycia.carbon.common.channels.messages.ConfigChannelMessageSource;
 import net.draycia.carbon.common.channels.messages.ConfigChannelMessages;
+import net.draycia.carbon.common.config.ConfigManager;
 import net.draycia.carbon.common.messages.CarbonMessageRenderer;
 import net.draycia.carbon.common.messages.CarbonMessages;
 import net.draycia.carbon.common.messages.SourcedAudience;
@@ -43,6 +49,7 @@ import net.draycia.carbon.common.messages.placeholders.IntPlaceholderResolver;
 import net.draycia.carbon.common.messages.placeholders.KeyPlaceholderResolver;
 import net.draycia.carbon.common.messages.placeholders.StringPlaceholderResolver;
 import net.draycia.carbon.common.messages.placeholders.UUIDPlaceholderResolver;
+import net.draycia.carbon.common.users.UserManagerInternal;
 import net.draycia.carbon.common.util.Exceptions;
 import net.kyori.adventure.audience.Audience;
 import net.kyori.adventure.key.Key;
@@ -70,6 +77,8 @@ public class ConfigChatChannel implements ChatChannel {
     protected transient @MonotonicNonNull @Inject CarbonServer server;
     private transient @MonotonicNonNull @Inject CarbonMessageRenderer renderer;
     protected transient @MonotonicNonNull @Inject CarbonMessages messages;
+    protected transient @MonotonicNonNull @Inject UserManagerInternal<?> users;
+    private transient @MonotonicNonNull @Inject ConfigManager configManager;
 
     @Comment("""
         The channel's key, used to track the channel.
@@ -100,6 +109,9 @@ public class ConfigChatChannel implements ChatChannel {
 
     private transient @Nullable ConfigChannelMessages carbonMessages = null;
 
+    private final transient Map<UUID, CarbonPlayer> listeners = new ConcurrentHashMap<>();
+    private transient volatile boolean listenersIndexed = false;
+
     @Comment("""
         The distance players must be within to see each other's messages.
         A value of '0' requires that both players are in the same world.
@@ -153,6 +165,27 @@ public class ConfigChatChannel implements ChatChannel {
         );
     }
 
+    /**
+     * Groups recipients which {@link #render} produces the same component for: the same resolved format and locale,
+     * with no relational placeholders in the format.
+     *
+     * @param sender    the sender
+     * @param recipient the recipient
+     * @return the recipient's bucket, or null if the render can't be shared
+     */
+    public @Nullable Object renderBucket(final CarbonPlayer sender, final Audience recipient) {
+        final String format = this.messageSource.messageOf(SourcedAudience.of(sender, recipient), "");
+        // PlaceholderAPI and MiniPlaceholders relational placeholders both use the rel_ prefix
+        if (this.configManager.primaryConfig().applyCustomPlaceholders(format).contains("rel_")) {
+            return null;
+        }
+        final @Nullable Locale locale = recipient instanceof CarbonPlayer player ? player.locale() : null;
+        return new RenderBucket(format, locale);
+    }
+
+    private record RenderBucket(String format, @Nullable Locale locale) {
+    }
+
     @Override
     public ChannelPermissionResult speechPermitted(final CarbonPlayer player) {
         return channelPermissionResult(
@@ -164,17 +197,77 @@ public class ConfigChatChannel implements ChatChannel {
     @Override
     public ChannelPermissionResult hearingPermitted(final CarbonPlayer player) {
         return channelPermissionResult(
-            player.hasPermission(this.permission() + ".see") && !player.leftChannels().contains(this.key),
+            this.indexedListener(player) && this.listening(player),
             () -> this.messages.channelNoPermission(player)
         );
     }
 
+    /**
+     * The part of {@link #hearingPermitted(CarbonPlayer)} which is cached in the listener index.
+     * Re-checked when the player joins, when LuckPerms recalculates their permissions, and by
+     * {@link #indexListeners()} as a fallback.
+     *
+     * @param player the player
+     * @return whether the player should be indexed as a listener
+     */
+    protected boolean indexedListener(final CarbonPlayer player) {
+        return player.hasPermission(this.permission() + ".see");
+    }
+
+    /**
+     * The part of {@link #hearingPermitted(CarbonPlayer)} which is checked for each indexed listener
+     * when a message is sent.
+     *
+     * @param player the player
+     * @return whether the indexed listener currently receives messages
+     */
+    protected boolean listening(final CarbonPlayer player) {
+        return !player.leftChannels().contains(this.key);
+    }
+
+    public void updateListener(final CarbonPlayer player) {
+        final UUID id = player.uuid();
+        if (!this.indexedListener(player)) {
+            this.listeners.remove(id);
+            return;
+        }
+        // the player may have been read from server.players() before a quit was handled
+        if (this.users.onlineUser(id) == null) {
+            this.listeners.remove(id, player);
+            return;
+        }
+        this.listeners.put(id, player);
+        // and removeListener may have run between the check and the put
+        if (this.users.onlineUser(id) == null) {
+            this.listeners.remove(id, player);
+        }
+    }
+
+    public void removeListener(final UUID id) {
+        this.listeners.remove(id);
+    }
+
+    public void indexListeners() {
+        final List<? extends CarbonPlayer> players = this.server.players();
+        final Set<UUID> online = new HashSet<>();
+        for (final CarbonPlayer player : players) {
+            online.add(player.uuid());
+            this.updateListener(player);
+        }
+        this.listeners.keySet().retainAll(online);
+        this.listenersIndexed = true;
+    }
+
     @Override
     public List<Audience> recipients(final CarbonPlayer sender) {
-        final List<Audience> recipients = new ArrayList<>();
+        if (!this.listenersIndexed) {
+            this.indexListeners();
+        }
+
+        final List<Audience> recipients = new ArrayList<>(this.listeners.size() + 1);
 
-        for (final CarbonPlayer player : this.server.players()) {
-            if (this.hearingPermitted(player).permitted()) {
+        for (final CarbonPlayer player : this.listeners.values()) {
+            if (player.online() && this.listening(player)) {
                 recipients.add(player);
             }
         }
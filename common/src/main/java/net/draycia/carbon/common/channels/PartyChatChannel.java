@@ -23,7 +23,7 @@ import com.google.inject.Inject;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import net.draycia.carbon.api.channels.ChannelPermissionResult;
 import net.draycia.carbon.api.users.CarbonPlayer;
@@ -31,6 +31,7 @@ import net.draycia.carbon.api.users.Party;
 import net.draycia.carbon.common.channels.messages.ConfigChannelMessageSource;
 import net.draycia.carbon.common.messages.CarbonMessages;
 import net.draycia.carbon.common.messages.SourcedAudience;
+import net.draycia.carbon.common.users.OnlinePartyMembers;
 import net.draycia.carbon.common.users.WrappedCarbonPlayer;
 import net.kyori.adventure.audience.Audience;
 import net.kyori.adventure.key.Key;
@@ -51,6 +52,7 @@ public class PartyChatChannel extends ConfigChatChannel {
     public static final String FILE_NAME = "partychat.conf";
 
     private transient @MonotonicNonNull @Inject CarbonMessages messages;
+    private transient @MonotonicNonNull @Inject OnlinePartyMembers onlineMembers;
 
     public PartyChatChannel() {
         this.key = Key.key("carbon", "partychat");
@@ -65,7 +67,7 @@ public class PartyChatChannel extends ConfigChatChannel {
     @Override
     public ChannelPermissionResult speechPermitted(final CarbonPlayer player) {
         return channelPermissionResult(
-            player.party().join() != null,
+            inParty(player),
             () -> this.messages.cannotUsePartyChannel(player)
         );
     }
@@ -73,11 +75,24 @@ public class PartyChatChannel extends ConfigChatChannel {
     @Override
     public ChannelPermissionResult hearingPermitted(final CarbonPlayer player) {
         return channelPermissionResult(
-            player.party().join() != null,
+            inParty(player),
             () -> this.messages.cannotUsePartyChannel(player)
         );
     }
 
+    private static boolean inParty(final CarbonPlayer player) {
+        if (player instanceof WrappedCarbonPlayer wrapped) {
+            return wrapped.partyId() != null;
+        }
+        return player.party().join() != null;
+    }
+
+    @Override
+    protected boolean indexedListener(final CarbonPlayer player) {
+        // recipients come from OnlinePartyMembers instead
+        return false;
+    }
+
     @Override
     public List<Audience> recipients(final CarbonPlayer sender) {
         final WrappedCarbonPlayer wrapped = (WrappedCarbonPlayer) sender;
@@ -88,8 +103,18 @@ public class PartyChatChannel extends ConfigChatChannel {
             }
             return new ArrayList<>();
         }
-        final List<Audience> recipients = super.recipients(sender);
-        recipients.removeIf(r -> r instanceof WrappedCarbonPlayer p && !Objects.equals(p.partyId(), party));
+        final Set<UUID> members = this.onlineMembers.onlineMembers(party);
+        final List<Audience> recipients = new ArrayList<>(members.size() + 1);
+        for (final UUID member : members) {
+            final @Nullable CarbonPlayer player = this.users.onlineUser(member);
+            if (player != null) {
+                recipients.add(player);
+            }
+        }
+
+        // console too!
+        recipients.add(this.server.console());
+
         return recipients;
     }
 
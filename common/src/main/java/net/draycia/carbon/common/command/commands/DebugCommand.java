@@ -20,7 +20,10 @@
 package net.draycia.carbon.common.command.commands;
 
 import com.google.inject.Inject;
+import com.google.inject.Provider;
 import java.util.ArrayList;
+import java.util.Locale;
+import java.util.Map;
 import net.draycia.carbon.api.users.CarbonPlayer;
 import net.draycia.carbon.common.command.CarbonCommand;
 import net.draycia.carbon.common.command.CommandSettings;
@@ -28,6 +31,16 @@ import net.draycia.carbon.common.command.Commander;
 import net.draycia.carbon.common.command.ParserFactory;
 import net.draycia.carbon.common.command.PlayerCommander;
 import net.draycia.carbon.common.messages.CarbonMessages;
+import net.draycia.carbon.common.messaging.MessagingManager;
+import net.draycia.carbon.common.messaging.PacketBatcher;
+import net.draycia.carbon.common.messaging.PacketLane;
+import net.draycia.carbon.common.metrics.CarbonMetrics;
+import net.draycia.carbon.common.metrics.LatencyHistogram;
+import net.draycia.carbon.common.users.Backing;
+import net.draycia.carbon.common.users.CachingUserManager;
+import net.draycia.carbon.common.users.CarbonPlayerCommon;
+import net.draycia.carbon.common.users.SaveCoalescer;
+import net.draycia.carbon.common.users.UserManagerInternal;
 import net.kyori.adventure.key.Key;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.JoinConfiguration;
@@ -44,16 +57,25 @@ public final class DebugCommand extends CarbonCommand {
     private final CommandManager<Commander> commandManager;
     private final CarbonMessages carbonMessages;
     private final ParserFactory parserFactory;
+    private final CarbonMetrics metrics;
+    private final Provider<MessagingManager> messagingManager;
+    private final Provider<UserManagerInternal<CarbonPlayerCommon>> userManager;
 
     @Inject
     public DebugCommand(
         final CommandManager<Commander> commandManager,
         final CarbonMessages carbonMessages,
-        final ParserFactory parserFactory
+        final ParserFactory parserFactory,
+        final CarbonMetrics metrics,
+        final Provider<MessagingManager> messagingManager,
+        final @Backing Provider<UserManagerInternal<CarbonPlayerCommon>> userManager
     ) {
         this.commandManager = commandManager;
         this.carbonMessages = carbonMessages;
         this.parserFactory = parserFactory;
+        this.metrics = metrics;
+        this.messagingManager = messagingManager;
+        this.userManager = userManager;
     }
 
     @Override
@@ -111,6 +133,56 @@ public final class DebugCommand extends CarbonCommand {
             .build();
 
         this.commandManager.command(command);
+
+        final var metricsCommand = this.commandManager.commandBuilder(this.commandSettings().name(), this.commandSettings().aliases())
+            .literal("metrics")
+            .permission("carbon.debug.metrics")
+            .commandDescription(richDescription(this.carbonMessages.commandDebugMetricsDescription()))
+            .handler(handler -> this.sendMetrics(handler.sender()))
+            .build();
+
+        this.commandManager.command(metricsCommand);
+    }
+
+    private void sendMetrics(final Commander sender) {
+        sender.sendMessage(Component.text("Stage: count, mean / p50 / p95 / p99 / max (ms)", NamedTextColor.GOLD));
+
+        for (final CarbonMetrics.Stage stage : CarbonMetrics.Stage.values()) {
+            final LatencyHistogram.Snapshot snapshot = this.metrics.histogram(stage).snapshot();
+            sender.sendMessage(
+                Component.join(JoinConfiguration.noSeparators(),
+                    Component.text(stage.id() + ": ", NamedTextColor.GOLD).hoverEvent(Component.text(stage.description())),
+                    Component.text(snapshot.count() + ", ", NamedTextColor.YELLOW),
+                    Component.text(String.join(" / ",
+                        millis(snapshot.meanNanos()),
+                        millis(snapshot.quantile(0.5)),
+                        millis(snapshot.quantile(0.95)),
+                        millis(snapshot.quantile(0.99)),
+                        millis(snapshot.maxNanos())
+                    ), NamedTextColor.GREEN))
+            );
+        }
+
+        if (this.userManager.get() instanceof CachingUserManager caching) {
+            final SaveCoalescer saves = caching.pendingSaves();
+            sender.sendMessage(
+                Component.join(JoinConfiguration.noSeparators(),
+                    Component.text("Property saves executed/requested: ", NamedTextColor.GOLD),
+                    Component.text(saves.executed() + "/" + saves.requested(), NamedTextColor.GREEN))
+            );
+        }
+
+        final Map<PacketLane, PacketBatcher.LaneStats> lanes = this.messagingManager.get().batchStats();
+        lanes.forEach((lane, stats) -> sender.sendMessage(
+            Component.join(JoinConfiguration.noSeparators(),
+                Component.text("Lane " + lane.name().toLowerCase(Locale.ROOT) + ": ", NamedTextColor.GOLD),
+                Component.text(stats.packets() + " packets, " + stats.flushes() + " flushes, "
+                    + String.format(Locale.ROOT, "%.1f", stats.packetsPerFlush()) + " per flush", NamedTextColor.GREEN))
+        ));
+    }
+
+    private static String millis(final double nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / 1_000_000D);
     }
 
 }
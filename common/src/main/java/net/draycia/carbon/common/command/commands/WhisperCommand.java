@@ -37,6 +37,7 @@ import net.draycia.carbon.common.event.events.CarbonPrivateChatEventImpl;
 import net.draycia.carbon.common.messages.CarbonMessages;
 import net.draycia.carbon.common.messages.SourcedAudience;
 import net.draycia.carbon.common.messaging.MessagingManager;
+import net.draycia.carbon.common.messaging.PacketLane;
 import net.draycia.carbon.common.messaging.packets.PacketFactory;
 import net.draycia.carbon.common.messaging.packets.WhisperPacket;
 import net.draycia.carbon.common.users.NetworkUsers;
@@ -224,7 +225,7 @@ public final class WhisperCommand extends CarbonCommand {
             if (localRecipient) {
                 recipient.whisperReplyTarget(sender.uuid());
             } else {
-                this.messaging.get().queuePacket(() -> this.packetFactory.whisperPacket(sender.uuid(), recipient.uuid(), privateChatEvent.message()));
+                this.messaging.get().queuePacket(PacketLane.LOW_LATENCY, () -> this.packetFactory.whisperPacket(sender.uuid(), recipient.uuid(), privateChatEvent.message()));
             }
         }
 
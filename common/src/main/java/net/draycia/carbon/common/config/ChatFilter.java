@@ -0,0 +1,211 @@
+/*
+ * CarbonChat
+ *
+ * Copyright (c) 2024 Josua Parks (Vicarious)
+ *                    Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.draycia.carbon.common.config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import net.draycia.carbon.common.util.LiteralReplacer;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+/**
+ * The configured chat filters, compiled so a message is scanned once instead of once per filter.
+ *
+ * <p>Filters without regex syntax are matched together by a {@link LiteralReplacer}, in time linear in
+ * the message length. The remaining regex filters are joined into one alternation, with group references
+ * in their replacements shifted to match. Filters with backreferences ({@code \1}) in their pattern would
+ * point at the wrong group once joined, so they run on their own after the alternation.</p>
+ */
+@DefaultQualifier(NonNull.class)
+final class ChatFilter {
+
+    private static final String REGEX_SYNTAX = "\\^$.|?*+()[]{}";
+
+    private final LiteralReplacer literals;
+    private final @Nullable Pattern combined;
+    private final int[] groups;
+    private final String[] replacements;
+    // filters with backreferences, or all regex filters if they can't be combined, e.g. because they reuse a group name
+    private final List<Map.Entry<Pattern, String>> sequential;
+
+    private ChatFilter(
+        final LiteralReplacer literals,
+        final @Nullable Pattern combined,
+        final int[] groups,
+        final String[] replacements,
+        final List<Map.Entry<Pattern, String>> sequential
+    ) {
+        this.literals = literals;
+        this.combined = combined;
+        this.groups = groups;
+        this.replacements = replacements;
+        this.sequential = sequential;
+    }
+
+    static ChatFilter compile(final Map<String, String> filters, final boolean ignoreCase) {
+        final Map<String, String> literals = new LinkedHashMap<>();
+        final Map<String, String> regexes = new LinkedHashMap<>();
+        for (final Map.Entry<String, String> entry : filters.entrySet()) {
+            if (literal(entry.getKey()) && literal(entry.getValue())) {
+                literals.put(entry.getKey(), entry.getValue());
+            } else {
+                regexes.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        final int flags = ignoreCase ? Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE : 0;
+        final LiteralReplacer literalReplacer = LiteralReplacer.of(literals, ignoreCase);
+        if (regexes.isEmpty()) {
+            return new ChatFilter(literalReplacer, null, new int[0], new String[0], List.of());
+        }
+
+        final StringBuilder combined = new StringBuilder();
+        final int[] groups = new int[regexes.size()];
+        final String[] replacements = new String[regexes.size()];
+        final List<Map.Entry<Pattern, String>> sequential = new ArrayList<>();
+        final List<Map.Entry<Pattern, String>> backreferencing = new ArrayList<>();
+        int group = 1;
+        int i = 0;
+        for (final Map.Entry<String, String> entry : regexes.entrySet()) {
+            final Pattern pattern = Pattern.compile(entry.getKey(), flags);
+            sequential.add(Map.entry(pattern, entry.getValue()));
+
+            if (hasBackreference(entry.getKey())) {
+                backreferencing.add(Map.entry(pattern, entry.getValue()));
+                continue;
+            }
+
+            if (i != 0) {
+                combined.append('|');
+            }
+            combined.append('(').append(entry.getKey()).append(')');
+            groups[i] = group;
+            replacements[i] = shiftGroupReferences(entry.getValue(), group);
+            group += 1 + pattern.matcher("").groupCount();
+            i++;
+        }
+
+        if (i == 0) {
+            return new ChatFilter(literalReplacer, null, new int[0], new String[0], backreferencing);
+        }
+
+        try {
+            return new ChatFilter(
+                literalReplacer,
+                Pattern.compile(combined.toString(), flags),
+                Arrays.copyOf(groups, i),
+                Arrays.copyOf(replacements, i),
+                backreferencing
+            );
+        } catch (final PatternSyntaxException e) {
+            return new ChatFilter(literalReplacer, null, new int[0], new String[0], sequential);
+        }
+    }
+
+    String apply(final String message) {
+        String filtered = this.literals.replace(message);
+
+        if (this.combined != null) {
+            final Matcher matcher = this.combined.matcher(filtered);
+            if (matcher.find()) {
+                final StringBuilder builder = new StringBuilder(filtered.length());
+                do {
+                    matcher.appendReplacement(builder, this.replacements[this.matchedFilter(matcher)]);
+                } while (matcher.find());
+                matcher.appendTail(builder);
+                filtered = builder.toString();
+            }
+        }
+
+        for (final Map.Entry<Pattern, String> filter : this.sequential) {
+            filtered = filter.getKey().matcher(filtered).replaceAll(filter.getValue());
+        }
+
+        return filtered;
+    }
+
+    private int matchedFilter(final Matcher matcher) {
+        for (int i = 0; i < this.groups.length; i++) {
+            if (matcher.start(this.groups[i]) != -1) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("No filter matched " + matcher.group());
+    }
+
+    // numbered backreferences (\1), skipping escaped backslashes. Named ones (\k<name>) survive the alternation
+    private static boolean hasBackreference(final String regex) {
+        for (int i = 0; i < regex.length() - 1; i++) {
+            if (regex.charAt(i) != '\\') {
+                continue;
+            }
+            final char next = regex.charAt(i + 1);
+            if (next >= '1' && next <= '9') {
+                return true;
+            }
+            i++;
+        }
+        return false;
+    }
+
+    // shifts $n group references by the offset, leaving escaped \$ and named ${name} references alone
+    private static String shiftGroupReferences(final String replacement, final int offset) {
+        final StringBuilder shifted = new StringBuilder(replacement.length() + 4);
+        int i = 0;
+        while (i < replacement.length()) {
+            final char c = replacement.charAt(i);
+            if (c == '\\' && i + 1 < replacement.length()) {
+                shifted.append(c).append(replacement.charAt(i + 1));
+                i += 2;
+                continue;
+            }
+            int end = i + 1;
+            if (c == '$') {
+                while (end < replacement.length() && Character.isDigit(replacement.charAt(end))) {
+                    end++;
+                }
+            }
+            if (end > i + 1) {
+                shifted.append('$').append(offset + Integer.parseInt(replacement.substring(i + 1, end)));
+            } else {
+                shifted.append(c);
+            }
+            i = end;
+        }
+        return shifted.toString();
+    }
+
+    private static boolean literal(final String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (REGEX_SYNTAX.indexOf(value.charAt(i)) != -1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
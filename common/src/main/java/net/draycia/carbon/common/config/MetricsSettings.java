@@ -0,0 +1,53 @@
+/*
+ * CarbonChat
+ *
+ * Copyright (c) 2024 Josua Parks (Vicarious)
+ *                    Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.draycia.carbon.common.config;
+
+import org.spongepowered.configurate.objectmapping.ConfigSerializable;
+import org.spongepowered.configurate.objectmapping.meta.Comment;
+
+@ConfigSerializable
+public class MetricsSettings {
+
+    @Comment("""
+        Whether to serve the chat latency metrics shown by "/carbondebug metrics" over HTTP,
+        in the Prometheus text format, at "http://<bind-address>:<port>/metrics".""")
+    private boolean prometheusEnabled = false;
+
+    @Comment("""
+        The address to bind the metrics endpoint to.
+        The endpoint has no authentication, only bind it to a public address behind a firewall.""")
+    private String bindAddress = "127.0.0.1";
+
+    @Comment("The port to serve the metrics endpoint on.")
+    private int port = 9464;
+
+    public boolean prometheusEnabled() {
+        return this.prometheusEnabled;
+    }
+
+    public String bindAddress() {
+        return this.bindAddress;
+    }
+
+    public int port() {
+        return this.port;
+    }
+
+}
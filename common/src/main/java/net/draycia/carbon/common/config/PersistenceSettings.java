@@ -0,0 +1,69 @@
+/*
+ * CarbonChat
+ *
+ * Copyright (c) 2024 Josua Parks (Vicarious)
+ *                    Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.draycia.carbon.common.config;
+
+import org.spongepowered.configurate.objectmapping.ConfigSerializable;
+import org.spongepowered.configurate.objectmapping.meta.Comment;
+
+@ConfigSerializable
+public class PersistenceSettings {
+
+    @Comment("""
+        The number of threads used to save player and party data.
+        Saves for the same player or party always run in the order they were requested.
+        Changes require a restart.""")
+    private int saveThreads = 2;
+
+    @Comment("""
+        The number of threads reserved for loading player data, such as when a player joins.
+        Loads never have to wait behind slow saves.
+        Changes require a restart.""")
+    private int loadThreads = 2;
+
+    @Comment("""
+        How long to wait (in milliseconds) to gather player loads into batches, such as when many players join at once.
+        When using MYSQL, PSQL or H2 storage, each batch is loaded with a few queries instead of several per player.
+        0 loads every player on its own.""")
+    private long loadBatchWindowMillis = 10;
+
+    @Comment("""
+        When using MYSQL, PSQL or H2 storage, how long to wait (in milliseconds) after a player's data
+        changes before saving it. All changes made within this window are saved together.
+        Pending saves are always written immediately when the player logs out or the server stops.
+        Values between 250 and 2000 work well, 0 saves every change immediately.""")
+    private long saveDelayMillis = 500;
+
+    public int saveThreads() {
+        return Math.max(1, this.saveThreads);
+    }
+
+    public int loadThreads() {
+        return Math.max(1, this.loadThreads);
+    }
+
+    public long loadBatchWindowMillis() {
+        return Math.max(0, this.loadBatchWindowMillis);
+    }
+
+    public long saveDelayMillis() {
+        return Math.max(0, this.saveDelayMillis);
+    }
+
+}
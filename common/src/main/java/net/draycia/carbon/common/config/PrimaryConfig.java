@@ -19,10 +19,12 @@
  */
 package net.draycia.carbon.common.config;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import net.draycia.carbon.common.util.Exceptions;
+import net.draycia.carbon.common.util.LiteralReplacer;
 import net.kyori.adventure.key.Key;
 import net.kyori.adventure.sound.Sound;
 import org.checkerframework.checker.nullness.qual.NonNull;
@@ -58,9 +60,15 @@ public class PrimaryConfig {
         If JSON or H2 storage is used, this section can be ignored.""")
     private DatabaseSettings databaseSettings = new DatabaseSettings();
 
+    @Comment("Settings for the threads used to load and save player data. This is an advanced configuration that most users won't need to touch.")
+    private PersistenceSettings persistenceSettings = new PersistenceSettings();
+
     @Comment("Settings for cross-server messaging")
     private MessagingSettings messagingSettings = new MessagingSettings();
 
+    @Comment("Settings for exporting chat latency metrics.")
+    private MetricsSettings metricsSettings = new MetricsSettings();
+
     private NicknameSettings nicknameSettings = new NicknameSettings();
 
     @Comment("""
@@ -80,6 +88,14 @@ public class PrimaryConfig {
     @Comment("Basic regex based chat filter.")
     private Map<String, String> chatFilter = Map.of();
 
+    @Comment("Whether the chat filter ignores case when matching.")
+    private boolean chatFilterIgnoreCase = false;
+
+    // compiled on first use, the config is replaced on reload
+    private transient volatile @Nullable LiteralReplacer customPlaceholderReplacer;
+    private transient volatile @Nullable LiteralReplacer chatPlaceholderReplacer;
+    private transient volatile @Nullable ChatFilter compiledChatFilter;
+
     @Comment("Various settings related to pinging players in channels.")
     private PingSettings pingSettings = new PingSettings();
 
@@ -122,17 +138,25 @@ public class PrimaryConfig {
         return this.databaseSettings;
     }
 
+    public PersistenceSettings persistenceSettings() {
+        return this.persistenceSettings;
+    }
+
     public MessagingSettings messagingSettings() {
         return this.messagingSettings;
     }
 
+    public MetricsSettings metricsSettings() {
+        return this.metricsSettings;
+    }
+
     public String applyCustomPlaceholders(final String string) {
-        String placeholderResolvedMessage = string;
-        for (final var entry : this.customPlaceholders.entrySet()) {
-            placeholderResolvedMessage = placeholderResolvedMessage.replace("<" + entry.getKey() + ">",
-                entry.getValue());
+        @Nullable LiteralReplacer replacer = this.customPlaceholderReplacer;
+        if (replacer == null) {
+            replacer = placeholderReplacer(this.customPlaceholders);
+            this.customPlaceholderReplacer = replacer;
         }
-        return placeholderResolvedMessage;
+        return replacer.replace(string);
     }
 
     public @Nullable List<String> customChatSuggestions() {
@@ -140,22 +164,29 @@ public class PrimaryConfig {
     }
 
     public String applyChatPlaceholders(final String string) {
-        String placeholderResolvedMessage = string;
-        for (final var entry : this.chatPlaceholders.entrySet()) {
-            placeholderResolvedMessage = placeholderResolvedMessage.replace("<" + entry.getKey() + ">",
-                entry.getValue());
+        @Nullable LiteralReplacer replacer = this.chatPlaceholderReplacer;
+        if (replacer == null) {
+            replacer = placeholderReplacer(this.chatPlaceholders);
+            this.chatPlaceholderReplacer = replacer;
         }
-        return placeholderResolvedMessage;
+        return replacer.replace(string);
     }
 
     public String applyChatFilters(final String string) {
-        String filteredMessage = string;
-
-        for (final Map.Entry<String, String> entry : this.chatFilter.entrySet()) {
-            filteredMessage = filteredMessage.replaceAll(entry.getKey(), entry.getValue());
+        @Nullable ChatFilter filter = this.compiledChatFilter;
+        if (filter == null) {
+            filter = ChatFilter.compile(this.chatFilter, this.chatFilterIgnoreCase);
+            this.compiledChatFilter = filter;
         }
+        return filter.apply(string);
+    }
 
-        return filteredMessage;
+    private static LiteralReplacer placeholderReplacer(final Map<String, String> placeholders) {
+        final Map<String, String> tags = new LinkedHashMap<>();
+        for (final Map.Entry<String, String> entry : placeholders.entrySet()) {
+            tags.put("<" + entry.getKey() + ">", entry.getValue());
+        }
+        return LiteralReplacer.of(tags, false);
     }
 
     public PingSettings pings() {
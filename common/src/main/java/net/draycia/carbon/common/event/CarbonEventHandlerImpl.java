@@ -33,8 +33,12 @@ import net.draycia.carbon.api.event.CarbonEvent;
 import net.draycia.carbon.api.event.CarbonEventHandler;
 import net.draycia.carbon.api.event.CarbonEventSubscriber;
 import net.draycia.carbon.api.event.CarbonEventSubscription;
+import net.draycia.carbon.api.event.events.CarbonChatEvent;
+import net.draycia.carbon.common.event.events.CarbonEarlyChatEvent;
+import net.draycia.carbon.common.metrics.CarbonMetrics;
 import org.apache.logging.log4j.Logger;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.framework.qual.DefaultQualifier;
 
 /**
@@ -47,10 +51,12 @@ import org.checkerframework.framework.qual.DefaultQualifier;
 public final class CarbonEventHandlerImpl implements CarbonEventHandler {
 
     private final Logger logger;
+    private final CarbonMetrics metrics;
 
     @Inject
-    private CarbonEventHandlerImpl(final Logger logger) {
+    private CarbonEventHandlerImpl(final Logger logger, final CarbonMetrics metrics) {
         this.logger = logger;
+        this.metrics = metrics;
     }
 
     private final EventRegistry<CarbonEvent> eventRegistry = new SimpleEventRegistry<>(CarbonEvent.class);
@@ -93,7 +99,24 @@ public final class CarbonEventHandlerImpl implements CarbonEventHandler {
 
     @Override
     public <T extends CarbonEvent> void emit(final T event) {
+        final CarbonMetrics.@Nullable Stage stage = timedStage(event);
+        if (stage == null) {
+            this.eventBus.post(event);
+            return;
+        }
+
+        final long start = System.nanoTime();
         this.eventBus.post(event);
+        this.metrics.record(stage, start);
+    }
+
+    private static CarbonMetrics.@Nullable Stage timedStage(final CarbonEvent event) {
+        if (event instanceof CarbonEarlyChatEvent) {
+            return CarbonMetrics.Stage.EARLY_CHAT_EVENT;
+        } else if (event instanceof CarbonChatEvent) {
+            return CarbonMetrics.Stage.CHAT_EVENT;
+        }
+        return null;
     }
 
     private record SubscriberWrapper<T extends CarbonEvent>(
@@ -20,13 +20,17 @@
 package net.draycia.carbon.common.event.events;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import net.draycia.carbon.api.channels.ChatChannel;
 import net.draycia.carbon.api.event.events.CarbonChatEvent;
 import net.draycia.carbon.api.users.CarbonPlayer;
 import net.draycia.carbon.api.util.KeyedRenderer;
+import net.draycia.carbon.common.channels.ConfigChatChannel;
 import net.draycia.carbon.common.event.CancellableImpl;
 import net.kyori.adventure.audience.Audience;
 import net.kyori.adventure.chat.SignedMessage;
+import net.kyori.adventure.key.Key;
 import net.kyori.adventure.text.Component;
 import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
 import org.checkerframework.checker.nullness.qual.NonNull;
@@ -41,6 +45,11 @@ import org.checkerframework.framework.qual.DefaultQualifier;
 @DefaultQualifier(NonNull.class)
 public class CarbonChatEventImpl extends CancellableImpl implements CarbonChatEvent {
 
+    /**
+     * Key of the renderer which renders the message in the channel's format.
+     */
+    public static final Key DEFAULT_RENDERER = Key.key("carbon", "default");
+
     private final List<KeyedRenderer> renderers;
     private final CarbonPlayer sender;
     private final Component originalMessage;
@@ -49,6 +58,8 @@ public class CarbonChatEventImpl extends CancellableImpl implements CarbonChatEv
     private final @MonotonicNonNull SignedMessage signedMessage;
     public final boolean origin;
     private Component message;
+    // recipients whose render bucket matches share the rendered component
+    private final Map<Object, Component> renderCache = new ConcurrentHashMap<>();
 
     public CarbonChatEventImpl(
         final CarbonPlayer sender,
@@ -108,6 +119,7 @@ public class CarbonChatEventImpl extends CancellableImpl implements CarbonChatEv
     @Override
     public void message(final Component message) {
         this.message = message;
+        this.renderCache.clear();
     }
 
     @Override
@@ -121,6 +133,33 @@ public class CarbonChatEventImpl extends CancellableImpl implements CarbonChatEv
     }
 
     public Component renderFor(final Audience viewer) {
+        final @Nullable Object bucket = this.renderBucket(viewer);
+        if (bucket == null) {
+            return this.render(viewer);
+        }
+
+        final @Nullable Component cached = this.renderCache.get(bucket);
+        if (cached != null) {
+            return cached;
+        }
+
+        final Component rendered = this.render(viewer);
+        this.renderCache.putIfAbsent(bucket, rendered);
+        return rendered;
+    }
+
+    // only the channel's own renderer is known not to depend on the viewer beyond its bucket
+    private @Nullable Object renderBucket(final Audience viewer) {
+        if (this.renderers.size() != 1 || !this.renderers.get(0).key().equals(DEFAULT_RENDERER)) {
+            return null;
+        }
+        if (!(this.chatChannel instanceof ConfigChatChannel configChannel)) {
+            return null;
+        }
+        return configChannel.renderBucket(this.sender, viewer);
+    }
+
+    private Component render(final Audience viewer) {
         Component renderedMessage = this.message();
         for (final var renderer : this.renderers()) {
             renderedMessage = renderer.render(this.sender, viewer, renderedMessage, this.message());
@@ -31,10 +31,10 @@ import net.draycia.carbon.common.event.events.CarbonChatEventImpl;
 import net.draycia.carbon.common.event.events.CarbonEarlyChatEvent;
 import net.draycia.carbon.common.messages.CarbonMessages;
 import net.draycia.carbon.common.messages.TagPermissions;
+import net.draycia.carbon.common.metrics.CarbonMetrics;
 import net.draycia.carbon.common.users.WrappedCarbonPlayer;
 import net.kyori.adventure.audience.Audience;
 import net.kyori.adventure.chat.SignedMessage;
-import net.kyori.adventure.key.Key;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.ComponentIteratorType;
 import net.kyori.adventure.text.TextComponent;
@@ -49,15 +49,18 @@ public abstract class ChatListenerInternal {
     private final ConfigManager configManager;
     private final CarbonMessages carbonMessages;
     private final CarbonEventHandler carbonEventHandler;
+    private final CarbonMetrics metrics;
 
     protected ChatListenerInternal(
         final CarbonEventHandler carbonEventHandler,
         final CarbonMessages carbonMessages,
-        final ConfigManager configManager
+        final ConfigManager configManager,
+        final CarbonMetrics metrics
     ) {
         this.configManager = configManager;
         this.carbonMessages = carbonMessages;
         this.carbonEventHandler = carbonEventHandler;
+        this.metrics = metrics;
     }
 
     protected @Nullable CarbonChatEventImpl prepareAndEmitChatEvent(final CarbonPlayer sender, final String messageContent, final @Nullable SignedMessage signedMessage) {
@@ -69,8 +72,10 @@ public abstract class ChatListenerInternal {
     }
 
     protected @Nullable CarbonChatEventImpl prepareAndEmitChatEvent(final CarbonPlayer sender, final String messageContent, final @Nullable SignedMessage signedMessage, final ChatChannel channel) {
+        final long filtersStart = System.nanoTime();
         String content = this.configManager.primaryConfig().applyChatPlaceholders(messageContent);
         content = this.configManager.primaryConfig().applyChatFilters(content);
+        this.metrics.record(CarbonMetrics.Stage.CHAT_FILTERS, filtersStart);
 
         final CarbonEarlyChatEvent earlyChatEvent = new CarbonEarlyChatEvent(sender, content);
         this.carbonEventHandler.emit(earlyChatEvent);
@@ -94,9 +99,11 @@ public abstract class ChatListenerInternal {
         }
 
         final List<KeyedRenderer> renderers = new ArrayList<>();
-        renderers.add(KeyedRenderer.keyedRenderer(Key.key("carbon", "default"), channel));
+        renderers.add(KeyedRenderer.keyedRenderer(CarbonChatEventImpl.DEFAULT_RENDERER, channel));
 
+        final long recipientsStart = System.nanoTime();
         final List<Audience> recipients = channel.recipients(sender);
+        this.metrics.record(CarbonMetrics.Stage.RECIPIENTS, recipientsStart);
 
         final var chatEvent = new CarbonChatEventImpl(sender, message, recipients, renderers, channel, signedMessage);
 
@@ -105,6 +112,13 @@ public abstract class ChatListenerInternal {
         return chatEvent;
     }
 
+    protected final Component renderFor(final CarbonChatEventImpl chatEvent, final Audience viewer) {
+        final long start = System.nanoTime();
+        final Component rendered = chatEvent.renderFor(viewer);
+        this.metrics.record(CarbonMetrics.Stage.RENDER, start);
+        return rendered;
+    }
+
     private static boolean probablyBlank(final Component component) {
         final Iterator<Component> it = component.iterator(ComponentIteratorType.DEPTH_FIRST);
         while (it.hasNext()) {
@@ -27,6 +27,7 @@ import net.draycia.carbon.api.event.events.CarbonChatEvent;
 import net.draycia.carbon.api.users.CarbonPlayer;
 import net.draycia.carbon.common.event.events.CarbonChatEventImpl;
 import net.draycia.carbon.common.messaging.MessagingManager;
+import net.draycia.carbon.common.messaging.PacketLane;
 import net.draycia.carbon.common.messaging.ServerId;
 import net.draycia.carbon.common.messaging.packets.ChatMessagePacket;
 import net.draycia.carbon.common.users.ConsoleCarbonPlayer;
@@ -51,7 +52,7 @@ public class MessagePacketHandler implements Listener {
                 return;
             }
 
-            messaging.get().queuePacket(() -> {
+            messaging.get().queuePacket(PacketLane.LOW_LATENCY, () -> {
                 final CarbonPlayer sender = event.sender();
                 final Component networkMessage = e.renderFor(sender);
 
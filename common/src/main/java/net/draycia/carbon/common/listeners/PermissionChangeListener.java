@@ -0,0 +1,63 @@
+/*
+ * CarbonChat
+ *
+ * Copyright (c) 2024 Josua Parks (Vicarious)
+ *                    Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.draycia.carbon.common.listeners;
+
+import com.google.inject.Inject;
+import net.draycia.carbon.api.users.CarbonPlayer;
+import net.draycia.carbon.common.channels.CarbonChannelRegistry;
+import net.draycia.carbon.common.users.UserManagerInternal;
+import net.luckperms.api.LuckPerms;
+import net.luckperms.api.LuckPermsProvider;
+import net.luckperms.api.event.user.UserDataRecalculateEvent;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+/**
+ * Re-checks a player against the channel listener indexes as soon as LuckPerms recalculates their permissions,
+ * so granting or revoking a channel's {@code .see} permission applies to the next message.
+ */
+@DefaultQualifier(NonNull.class)
+public final class PermissionChangeListener implements Listener {
+
+    @Inject
+    public PermissionChangeListener(
+        final Logger logger,
+        final UserManagerInternal<?> userManager,
+        final CarbonChannelRegistry channelRegistry
+    ) {
+        final LuckPerms luckPerms;
+        try {
+            luckPerms = LuckPermsProvider.get();
+        } catch (final IllegalStateException e) {
+            logger.warn("LuckPerms is not loaded, channel permission changes will apply within 10 seconds instead of immediately");
+            return;
+        }
+
+        luckPerms.getEventBus().subscribe(UserDataRecalculateEvent.class, event -> {
+            final @Nullable CarbonPlayer player = userManager.onlineUser(event.getUser().getUniqueId());
+            if (player != null) {
+                channelRegistry.updateListener(player);
+            }
+        });
+    }
+
+}
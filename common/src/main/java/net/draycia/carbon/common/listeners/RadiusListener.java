@@ -20,11 +20,15 @@
 package net.draycia.carbon.common.listeners;
 
 import com.google.inject.Inject;
+import java.util.Set;
+import java.util.UUID;
 import net.draycia.carbon.api.event.CarbonEventHandler;
 import net.draycia.carbon.api.event.events.CarbonChatEvent;
 import net.draycia.carbon.api.users.CarbonPlayer;
 import net.draycia.carbon.common.messages.CarbonMessages;
+import net.draycia.carbon.common.users.PlayerPositionIndex;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.framework.qual.DefaultQualifier;
 
 @DefaultQualifier(NonNull.class)
@@ -33,7 +37,8 @@ public class RadiusListener implements Listener {
     @Inject
     public RadiusListener(
         final CarbonEventHandler events,
-        final CarbonMessages carbonMessages
+        final CarbonMessages carbonMessages,
+        final PlayerPositionIndex positions
     ) {
         events.subscribe(CarbonChatEvent.class, 0, false, event -> {
             if (event.chatChannel() == null) {
@@ -46,6 +51,10 @@ public class RadiusListener implements Listener {
                 return;
             }
 
+            final @Nullable Set<UUID> nearby = radius == 0
+                ? positions.sameWorld(event.sender().uuid())
+                : positions.nearby(event.sender().uuid(), radius);
+
             if (radius == 0) {
                 event.recipients().removeIf(audience -> {
                     if (audience.equals(event.sender())) {
@@ -53,6 +62,10 @@ public class RadiusListener implements Listener {
                     }
 
                     if (audience instanceof CarbonPlayer carbonPlayer) {
+                        if (nearby != null && positions.tracked(carbonPlayer.uuid())) {
+                            return !nearby.contains(carbonPlayer.uuid());
+                        }
+
                         return !carbonPlayer.sameWorldAs(event.sender());
                     }
 
@@ -65,6 +78,10 @@ public class RadiusListener implements Listener {
                     }
 
                     if (audience instanceof CarbonPlayer carbonPlayer) {
+                        if (nearby != null && positions.tracked(carbonPlayer.uuid())) {
+                            return !nearby.contains(carbonPlayer.uuid());
+                        }
+
                         if (!event.sender().sameWorldAs(carbonPlayer)) {
                             return true;
                         }
@@ -303,6 +303,9 @@ public interface CarbonMessages {
     @Message("command.debug.description")
     Component commandDebugDescription();
 
+    @Message("command.debug.metrics.description")
+    Component commandDebugMetricsDescription();
+
     @Message("command.help.argument.query")
     Component commandHelpArgumentQuery();
 
@@ -0,0 +1,222 @@
+/*
+ * CarbonChat
+ *
+ * Copyright (c) 2024 Josua Parks (Vicarious)
+ *                    Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.draycia.carbon.common.messages;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextReplacementConfig;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.minimessage.Context;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.ParsingException;
+import net.kyori.adventure.text.minimessage.tag.Inserting;
+import net.kyori.adventure.text.minimessage.tag.PreProcess;
+import net.kyori.adventure.text.minimessage.tag.Tag;
+import net.kyori.adventure.text.minimessage.tag.resolver.ArgumentQueue;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+/**
+ * Parses MiniMessage strings once into component trees with a slot for each placeholder, so rendering the
+ * same message again only fills in the slots.
+ *
+ * <p>Only messages whose placeholders are all inserted components or plain strings can be templated.
+ * Unknown tags (which another resolver, such as MiniPlaceholders, might handle) and placeholders used as tag
+ * arguments, in click events or in insertions also make a message fall back to a full parse.</p>
+ */
+@DefaultQualifier(NonNull.class)
+public final class MessageTemplates {
+
+    private static final char SLOT_START = '\uE000';
+    private static final char SLOT_END = '\uE001';
+    private static final Pattern SLOT = Pattern.compile(SLOT_START + "(\\d+)" + SLOT_END);
+
+    private final MiniMessage miniMessage;
+    private final Cache<TemplateKey, Optional<Component>> templates = Caffeine.newBuilder()
+        .maximumSize(1024)
+        .build();
+
+    public MessageTemplates(final MiniMessage miniMessage) {
+        this.miniMessage = miniMessage;
+    }
+
+    /**
+     * Renders the message from its template.
+     *
+     * @param message              the MiniMessage string
+     * @param resolvedPlaceholders the placeholders, as passed to {@link CarbonMessageRenderer}
+     * @return the rendered message, or null if it can't be templated and has to be parsed normally
+     */
+    public @Nullable Component render(final String message, final Map<String, ?> resolvedPlaceholders) {
+        final List<String> names = new ArrayList<>(resolvedPlaceholders.size());
+        final List<Boolean> inserting = new ArrayList<>(resolvedPlaceholders.size());
+        final Component[] values = new Component[resolvedPlaceholders.size()];
+
+        for (final Map.Entry<String, ?> entry : resolvedPlaceholders.entrySet()) {
+            if (entry.getValue() instanceof Inserting tag && !tag.allowsChildren()) {
+                values[names.size()] = tag.value();
+                inserting.add(true);
+            } else if (entry.getValue() instanceof PreProcess tag && plain(tag.value())) {
+                values[names.size()] = Component.text(tag.value());
+                inserting.add(false);
+            } else {
+                return null;
+            }
+            names.add(entry.getKey());
+        }
+
+        final Optional<Component> template = this.templates.get(
+            new TemplateKey(message, List.copyOf(names), List.copyOf(inserting)),
+            this::compile
+        );
+        if (template.isEmpty()) {
+            return null;
+        }
+        if (values.length == 0) {
+            return template.get();
+        }
+
+        return template.get().replaceText(TextReplacementConfig.builder()
+            .match(SLOT)
+            .replacement((result, builder) -> values[Integer.parseInt(result.group(1))])
+            .build());
+    }
+
+    private Optional<Component> compile(final TemplateKey key) {
+        if (slotInTagArgument(key.message(), key.names())) {
+            return Optional.empty();
+        }
+        final SlotResolver resolver = new SlotResolver(key);
+        final Component tree;
+        try {
+            tree = this.miniMessage.deserialize(key.message(), resolver);
+        } catch (final ParsingException e) {
+            return Optional.empty();
+        }
+        if (resolver.unknownTags || slotInStyle(tree)) {
+            return Optional.empty();
+        }
+        return Optional.of(tree);
+    }
+
+    // slots are only filled in text, so a placeholder nested in another tag (<color:<x>>, gradient stops, <lang:<key>>,
+    // hover content...) needs a full parse. A stray '<' in plain text only costs a needless fallback
+    private static boolean slotInTagArgument(final String message, final List<String> names) {
+        int depth = 0;
+        for (int i = 0; i < message.length(); i++) {
+            final char c = message.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '>') {
+                depth = Math.max(0, depth - 1);
+            } else if (c == '<') {
+                if (depth > 0 && placeholderAt(message, i + 1, names)) {
+                    return true;
+                }
+                depth++;
+            }
+        }
+        return false;
+    }
+
+    private static boolean placeholderAt(final String message, final int start, final List<String> names) {
+        for (final String name : names) {
+            final int end = start + name.length();
+            if (message.regionMatches(true, start, name, 0, name.length())
+                && end < message.length() && ">:/".indexOf(message.charAt(end)) != -1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // slots are only filled in text, so a placeholder in a click event or insertion needs a full parse
+    private static boolean slotInStyle(final Component component) {
+        final @Nullable ClickEvent click = component.clickEvent();
+        if (click != null && click.value().indexOf(SLOT_START) != -1) {
+            return true;
+        }
+        final @Nullable String insertion = component.insertion();
+        if (insertion != null && insertion.indexOf(SLOT_START) != -1) {
+            return true;
+        }
+        for (final Component child : component.children()) {
+            if (slotInStyle(child)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // usernames and other plain strings insert the same text whether pre-processed or not
+    private static boolean plain(final String value) {
+        return value.indexOf('<') == -1 && value.indexOf('\\') == -1;
+    }
+
+    private static String marker(final int slot) {
+        return SLOT_START + Integer.toString(slot) + SLOT_END;
+    }
+
+    private record TemplateKey(String message, List<String> names, List<Boolean> inserting) {
+    }
+
+    private static final class SlotResolver implements TagResolver {
+
+        private final TemplateKey key;
+        private boolean unknownTags;
+
+        private SlotResolver(final TemplateKey key) {
+            this.key = key;
+        }
+
+        @Override
+        public @Nullable Tag resolve(final String name, final ArgumentQueue arguments, final Context ctx) {
+            final int slot = this.key.names().indexOf(name);
+            if (slot == -1) {
+                return null;
+            }
+            if (this.key.inserting().get(slot)) {
+                return Tag.selfClosingInserting(Component.text(marker(slot)));
+            }
+            return Tag.preProcessParsed(marker(slot));
+        }
+
+        @Override
+        public boolean has(final String name) {
+            if (this.key.names().contains(name)) {
+                return true;
+            }
+            if (!TagResolver.standard().has(name)) {
+                this.unknownTags = true;
+            }
+            return false;
+        }
+
+    }
+
+}
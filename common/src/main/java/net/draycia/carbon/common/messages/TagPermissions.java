@@ -19,7 +19,9 @@
  */
 package net.draycia.carbon.common.messages;
 
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.TextDecoration;
@@ -35,7 +37,7 @@ public final class TagPermissions {
     public static final String NICKNAME = "carbon.nickname.tags";
     public static final String MESSAGE = "carbon.messagetags";
     public static final String PARTY_NAME = "carbon.parties.name.tags";
-    private static final Map<String, TagResolver> DEFAULT_TAGS = Map.ofEntries(
+    private static final List<Map.Entry<String, TagResolver>> DEFAULT_TAGS = List.of(
         Map.entry("hover", StandardTags.hoverEvent()),
         Map.entry("click", StandardTags.clickEvent()),
         Map.entry("color", StandardTags.color()),
@@ -49,38 +51,74 @@ public final class TagPermissions {
         Map.entry("reset", StandardTags.reset()),
         Map.entry("newline", StandardTags.newline())
     );
+    private static final TextDecoration[] DECORATIONS = TextDecoration.values();
+    private static final int ALL_DECORATIONS_BIT = DEFAULT_TAGS.stream().map(Map.Entry::getKey).toList().indexOf("decorations");
+
+    // base permission -> permission node for each tag, the default tags followed by each decoration
+    private static final Map<String, String[]> PERMISSION_NODES = new ConcurrentHashMap<>();
+    // bitset of permitted tags, in the same order -> parser with those tags
+    private static final Map<Integer, MiniMessage> PARSERS = new ConcurrentHashMap<>();
 
     private TagPermissions() {
     }
 
-    public static Component parseTags(final String basePermission, final String message, final Predicate<String> permission, final TagResolver.Builder resolver) {
-        boolean hasAllDecorations = false;
-        for (final Map.Entry<String, TagResolver> entry : DEFAULT_TAGS.entrySet()) {
-            if (permission.test(basePermission + '.' + entry.getKey())) {
-                resolver.resolver(entry.getValue());
-                if (entry.getKey().equals("decorations")) {
-                    hasAllDecorations = true;
-                }
+    public static Component parseTags(final String basePermission, final String message, final Predicate<String> permission, final TagResolver resolver) {
+        final MiniMessage miniMessage = PARSERS.computeIfAbsent(permittedTags(basePermission, permission), TagPermissions::createParser);
+
+        return miniMessage.deserialize(message, resolver);
+    }
+
+    public static Component parseTags(final String basePermission, final String message, final Predicate<String> permission) {
+        return parseTags(basePermission, message, permission, TagResolver.empty());
+    }
+
+    private static int permittedTags(final String basePermission, final Predicate<String> permission) {
+        final String[] nodes = PERMISSION_NODES.computeIfAbsent(basePermission, TagPermissions::permissionNodes);
+
+        int permitted = 0;
+        for (int i = 0; i < DEFAULT_TAGS.size(); i++) {
+            if (permission.test(nodes[i])) {
+                permitted |= 1 << i;
             }
         }
 
-        if (!hasAllDecorations) {
-            for (final TextDecoration decoration : TextDecoration.values()) {
-                if (!permission.test(basePermission + '.' + decoration.name())) {
-                    continue;
+        // individual decorations only matter without the permission for all of them
+        if ((permitted & (1 << ALL_DECORATIONS_BIT)) == 0) {
+            for (int i = DEFAULT_TAGS.size(); i < nodes.length; i++) {
+                if (permission.test(nodes[i])) {
+                    permitted |= 1 << i;
                 }
-
-                resolver.resolver(StandardTags.decorations(decoration));
             }
         }
 
-        final MiniMessage miniMessage = MiniMessage.builder().tags(resolver.build()).build();
+        return permitted;
+    }
 
-        return miniMessage.deserialize(message);
+    private static String[] permissionNodes(final String basePermission) {
+        final String[] nodes = new String[DEFAULT_TAGS.size() + DECORATIONS.length];
+        for (int i = 0; i < DEFAULT_TAGS.size(); i++) {
+            nodes[i] = basePermission + '.' + DEFAULT_TAGS.get(i).getKey();
+        }
+        for (int i = 0; i < DECORATIONS.length; i++) {
+            nodes[DEFAULT_TAGS.size() + i] = basePermission + '.' + DECORATIONS[i].name();
+        }
+        return nodes;
     }
 
-    public static Component parseTags(final String basePermission, final String message, final Predicate<String> permission) {
-        return parseTags(basePermission, message, permission, TagResolver.builder());
+    private static MiniMessage createParser(final int permitted) {
+        final TagResolver.Builder resolver = TagResolver.builder();
+        for (int i = 0; i < DEFAULT_TAGS.size(); i++) {
+            if ((permitted & (1 << i)) != 0) {
+                resolver.resolver(DEFAULT_TAGS.get(i).getValue());
+            }
+        }
+        for (int i = 0; i < DECORATIONS.length; i++) {
+            if ((permitted & (1 << (DEFAULT_TAGS.size() + i))) != 0) {
+                resolver.resolver(StandardTags.decorations(DECORATIONS[i]));
+            }
+        }
+
+        return MiniMessage.builder().tags(resolver.build()).build();
     }
 
 }
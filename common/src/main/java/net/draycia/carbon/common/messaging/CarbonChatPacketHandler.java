@@ -21,6 +21,11 @@ package net.draycia.carbon.common.messaging;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
 import net.draycia.carbon.api.CarbonChat;
 import net.draycia.carbon.api.CarbonServer;
 import net.draycia.carbon.api.channels.ChannelRegistry;
@@ -34,18 +39,24 @@ import net.draycia.carbon.common.messaging.packets.ChatMessagePacket;
 import net.draycia.carbon.common.messaging.packets.DisbandPartyPacket;
 import net.draycia.carbon.common.messaging.packets.InvalidatePartyInvitePacket;
 import net.draycia.carbon.common.messaging.packets.LocalPlayerChangePacket;
+import net.draycia.carbon.common.messaging.packets.LocalPlayersDigestPacket;
 import net.draycia.carbon.common.messaging.packets.LocalPlayersPacket;
+import net.draycia.carbon.common.messaging.packets.LocalPlayersRequestPacket;
 import net.draycia.carbon.common.messaging.packets.PartyChangePacket;
 import net.draycia.carbon.common.messaging.packets.PartyInvitePacket;
 import net.draycia.carbon.common.messaging.packets.SaveCompletedPacket;
+import net.draycia.carbon.common.messaging.packets.SequencedLocalPlayerChangePacket;
+import net.draycia.carbon.common.messaging.packets.SequencedLocalPlayersPacket;
 import net.draycia.carbon.common.messaging.packets.WhisperPacket;
 import net.draycia.carbon.common.users.NetworkUsers;
 import net.draycia.carbon.common.users.PartyInvites;
 import net.draycia.carbon.common.users.UserManagerInternal;
 import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.key.Key;
 import net.kyori.adventure.text.Component;
 import ninja.egg82.messenger.handler.AbstractMessagingHandler;
 import ninja.egg82.messenger.packets.Packet;
+import org.apache.logging.log4j.Logger;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.framework.qual.DefaultQualifier;
@@ -53,73 +64,86 @@ import org.checkerframework.framework.qual.DefaultQualifier;
 @DefaultQualifier(NonNull.class)
 public final class CarbonChatPacketHandler extends AbstractMessagingHandler {
 
+    // once this many chat messages are waiting on sender loads, the broker thread blocks until some are delivered
+    private static final int MAX_IN_FLIGHT_MESSAGES = 1024;
+
+    private final Logger logger;
+    private final Semaphore inFlightMessages = new Semaphore(MAX_IN_FLIGHT_MESSAGES);
+    private final Map<Key, CompletableFuture<Void>> channelTails = new ConcurrentHashMap<>();
     private final CarbonEventHandler events;
     private final CarbonServer server;
     private final ChannelRegistry channels;
     private final UserManagerInternal<?> userManager;
-    private final NetworkUsers networkUsers;
-    private final WhisperCommand.WhisperHandler whisper;
-    private final PartyInvites partyInvites;
+    private final PacketDispatcher dispatcher;
 
     CarbonChatPacketHandler(
+        final Logger logger,
         final CarbonChat carbonChat,
         final MessagingManager messagingManager,
         final UserManagerInternal<?> userManager,
         final NetworkUsers networkUsers,
         final WhisperCommand.WhisperHandler whisper,
-        final PartyInvites partyInvites
+        final PartyInvites partyInvites,
+        final PacketDispatcher dispatcher,
+        final Executor background
     ) {
         super(messagingManager.requirePacketService());
+        this.logger = logger;
         this.events = carbonChat.eventHandler();
         this.server = carbonChat.server();
         this.channels = carbonChat.channelRegistry();
         this.userManager = userManager;
-        this.networkUsers = networkUsers;
-        this.whisper = whisper;
-        this.partyInvites = partyInvites;
+        this.dispatcher = dispatcher;
+
+        // chat and player list updates are cheap or already asynchronous, and stay on the broker thread to keep their order
+        dispatcher.register(ChatMessagePacket.class, PacketDispatcher.INLINE, this::handleMessagePacket);
+        dispatcher.register(WhisperPacket.class, PacketDispatcher.INLINE, whisper::handlePacket);
+        dispatcher.register(LocalPlayersPacket.class, PacketDispatcher.INLINE, networkUsers::handlePacket);
+        dispatcher.register(LocalPlayerChangePacket.class, PacketDispatcher.INLINE, networkUsers::handlePacket);
+        dispatcher.register(SequencedLocalPlayersPacket.class, PacketDispatcher.INLINE, networkUsers::handlePacket);
+        dispatcher.register(SequencedLocalPlayerChangePacket.class, PacketDispatcher.INLINE, networkUsers::handlePacket);
+        dispatcher.register(LocalPlayersDigestPacket.class, PacketDispatcher.INLINE, networkUsers::handlePacket);
+        dispatcher.register(LocalPlayersRequestPacket.class, PacketDispatcher.INLINE, networkUsers::handlePacket);
+
+        // cache and party bookkeeping may touch storage, keep it off the broker thread
+        dispatcher.register(SaveCompletedPacket.class, background, pkt -> userManager.saveCompleteMessageReceived(pkt.playerId()));
+        dispatcher.register(PartyChangePacket.class, background, userManager::partyChangeMessageReceived);
+        dispatcher.register(PartyInvitePacket.class, background, partyInvites::handle);
+        dispatcher.register(InvalidatePartyInvitePacket.class, background, partyInvites::handle);
+        dispatcher.register(DisbandPartyPacket.class, background, userManager::disbandPartyMessageReceived);
     }
 
     @Override
     protected boolean handlePacket(final Packet packet) {
-        if (packet instanceof SaveCompletedPacket statePacket) {
-            this.userManager.saveCompleteMessageReceived(statePacket.playerId());
-            return true;
-        } else if (packet instanceof PartyChangePacket pkt) {
-            this.userManager.partyChangeMessageReceived(pkt);
-            return true;
-        } else if (packet instanceof PartyInvitePacket pkt) {
-            this.partyInvites.handle(pkt);
-            return true;
-        } else if (packet instanceof InvalidatePartyInvitePacket pkt) {
-            this.partyInvites.handle(pkt);
-            return true;
-        } else if (packet instanceof DisbandPartyPacket pkt) {
-            this.userManager.disbandPartyMessageReceived(pkt);
-            return true;
-        } else if (packet instanceof ChatMessagePacket messagePacket) {
-            this.handleMessagePacket(messagePacket);
-            return true; // Don't log an error when the channel doesn't exist
-        } else if (packet instanceof LocalPlayersPacket playersPacket) {
-            this.networkUsers.handlePacket(playersPacket);
-            return true;
-        } else if (packet instanceof LocalPlayerChangePacket playerChangePacket) {
-            this.networkUsers.handlePacket(playerChangePacket);
-            return true;
-        } else if (packet instanceof WhisperPacket whisperPacket) {
-            this.whisper.handlePacket(whisperPacket);
-            return true;
-        }
-
-        return false;
+        return this.dispatcher.dispatch(packet);
     }
 
-    private boolean handleMessagePacket(final ChatMessagePacket messagePacket) {
-        final CarbonPlayer sender = this.userManager.user(messagePacket.userId()).join();
+    private void handleMessagePacket(final ChatMessagePacket messagePacket) {
+        this.inFlightMessages.acquireUninterruptibly();
+
+        // start loading the sender right away, but deliver in order with earlier messages in the same channel
+        final CompletableFuture<? extends CarbonPlayer> sender = this.userManager.user(messagePacket.userId());
+        final CompletableFuture<Void> delivered = new CompletableFuture<>();
+        final @Nullable CompletableFuture<Void> previous = this.channelTails.put(messagePacket.channelKey(), delivered);
+        final CompletableFuture<Void> ready = previous == null ? CompletableFuture.completedFuture(null) : previous;
+
+        ready.thenCombine(sender, ($, player) -> player)
+            .thenAccept(player -> this.deliverMessage(player, messagePacket))
+            .whenComplete(($, thr) -> {
+                if (thr != null) {
+                    this.logger.warn("Failed to handle chat message packet {}", messagePacket, thr);
+                }
+                this.inFlightMessages.release();
+                delivered.complete(null);
+                this.channelTails.remove(messagePacket.channelKey(), delivered);
+            });
+    }
 
+    private void deliverMessage(final CarbonPlayer sender, final ChatMessagePacket messagePacket) {
         final @Nullable ChatChannel channel = this.channels.channel(messagePacket.channelKey());
 
         if (channel == null) {
-            return false;
+            return;
         }
 
         final List<KeyedRenderer> renderers = new ArrayList<>();
@@ -138,8 +162,6 @@ public final class CarbonChatPacketHandler extends AbstractMessagingHandler {
         }
 
         this.server.console().sendMessage(Component.text("[Cross-Server] ").append(chatEvent.message()));
-
-        return true;
     }
 
 }
@@ -23,33 +23,38 @@ import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import java.io.File;
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.List;
+import java.util.EnumMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 import net.draycia.carbon.api.CarbonChat;
-import net.draycia.carbon.api.CarbonServer;
-import net.draycia.carbon.api.users.CarbonPlayer;
 import net.draycia.carbon.common.CarbonChatInternal;
 import net.draycia.carbon.common.command.commands.WhisperCommand;
 import net.draycia.carbon.common.config.ConfigManager;
 import net.draycia.carbon.common.config.MessagingSettings;
+import net.draycia.carbon.common.messaging.packets.CarbonPacket;
 import net.draycia.carbon.common.messaging.packets.ChatMessagePacket;
 import net.draycia.carbon.common.messaging.packets.DisbandPartyPacket;
 import net.draycia.carbon.common.messaging.packets.InvalidatePartyInvitePacket;
 import net.draycia.carbon.common.messaging.packets.LocalPlayerChangePacket;
+import net.draycia.carbon.common.messaging.packets.LocalPlayersDigestPacket;
 import net.draycia.carbon.common.messaging.packets.LocalPlayersPacket;
-import net.draycia.carbon.common.messaging.packets.PacketFactory;
+import net.draycia.carbon.common.messaging.packets.LocalPlayersRequestPacket;
 import net.draycia.carbon.common.messaging.packets.PartyChangePacket;
 import net.draycia.carbon.common.messaging.packets.PartyInvitePacket;
 import net.draycia.carbon.common.messaging.packets.SaveCompletedPacket;
+import net.draycia.carbon.common.messaging.packets.SequencedLocalPlayerChangePacket;
+import net.draycia.carbon.common.messaging.packets.SequencedLocalPlayersPacket;
 import net.draycia.carbon.common.messaging.packets.WhisperPacket;
+import net.draycia.carbon.common.metrics.CarbonMetrics;
 import net.draycia.carbon.common.users.NetworkUsers;
 import net.draycia.carbon.common.users.PartyInvites;
 import net.draycia.carbon.common.users.UserManagerInternal;
@@ -81,29 +86,38 @@ import org.checkerframework.framework.qual.DefaultQualifier;
 @DefaultQualifier(NonNull.class)
 public class MessagingManager {
 
-    private static final byte protocolVersion = 0;
+    // 1: components may be sent in the compact binary format, see CarbonPacket#compactComponents
+    // 2: player lists may be synced with sequenced packets, digests and resync requests, see NetworkUsers
+    private static final byte protocolVersion = 2;
+    private static final byte COMPACT_COMPONENTS_VERSION = 1;
+    public static final byte SEQUENCED_PLAYER_LISTS_VERSION = 2;
 
     private final Logger logger;
     private final UUID serverId;
     private final @MonotonicNonNull ScheduledExecutorService scheduledExecutor;
     private final @MonotonicNonNull MessagingService messagingService;
     private volatile @MonotonicNonNull PacketService packetService;
+    private final @MonotonicNonNull PacketBatcher batcher;
+    private final @MonotonicNonNull ExecutorService handlerExecutor;
+    private final @MonotonicNonNull PacketDispatcher dispatcher;
+    private final BrokerType brokerType;
+    private final Map<UUID, Byte> peerVersions = new ConcurrentHashMap<>();
 
     @Inject
     public MessagingManager(
         final ConfigManager configManager,
         final CarbonChat carbonChat,
         final @ServerId UUID serverId,
-        final CarbonServer server,
         final Logger logger,
         final UserManagerInternal<?> userManager,
         final NetworkUsers networkUsers,
         final WhisperCommand.WhisperHandler whisper,
-        final PacketFactory packetFactory,
-        final PartyInvites partyInvites
+        final PartyInvites partyInvites,
+        final CarbonMetrics metrics
     ) {
         this.serverId = serverId;
         this.logger = logger;
+        this.brokerType = configManager.primaryConfig().messagingSettings().brokerType();
         final boolean proxy = ((CarbonChatInternal) carbonChat).isProxy();
         if (proxy || !configManager.primaryConfig().messagingSettings().enabled()) {
             if (!proxy) {
@@ -114,6 +128,9 @@ public class MessagingManager {
             this.messagingService = null;
             this.packetService = null;
             this.scheduledExecutor = null;
+            this.batcher = null;
+            this.handlerExecutor = null;
+            this.dispatcher = null;
             return;
         }
 
@@ -133,14 +150,23 @@ public class MessagingManager {
         PacketManager.register(PartyInvitePacket.class, PartyInvitePacket::new);
         PacketManager.register(InvalidatePartyInvitePacket.class, InvalidatePartyInvitePacket::new);
         PacketManager.register(DisbandPartyPacket.class, DisbandPartyPacket::new);
+        // protocol version 2, registered after the older packets so their ids don't move
+        PacketManager.register(SequencedLocalPlayersPacket.class, SequencedLocalPlayersPacket::new);
+        PacketManager.register(SequencedLocalPlayerChangePacket.class, SequencedLocalPlayerChangePacket::new);
+        PacketManager.register(LocalPlayersDigestPacket.class, LocalPlayersDigestPacket::new);
+        PacketManager.register(LocalPlayersRequestPacket.class, LocalPlayersRequestPacket::new);
 
         this.packetService = new PacketService(4, false, protocolVersion);
         this.scheduledExecutor = new ExceptionLoggingScheduledThreadPoolExecutor(4,
             ConcurrentUtil.carbonThreadFactory(logger, "MessagingManager"), logger);
+        this.batcher = new PacketBatcher(this.packetService, this.scheduledExecutor, metrics.histogram(CarbonMetrics.Stage.BROKER_PUBLISH));
 
         final MessagingHandlerImpl handlerImpl = new MessagingHandlerImpl(this.packetService);
-        handlerImpl.addHandler(new CarbonServerHandler(server, serverId, this.packetService, handlerImpl, packetFactory));
-        handlerImpl.addHandler(new CarbonChatPacketHandler(carbonChat, this, userManager, networkUsers, whisper, partyInvites));
+        handlerImpl.addHandler(new CarbonServerHandler(serverId, this.packetService, handlerImpl, networkUsers, this.peerVersions));
+        // single thread so party and cache updates are still applied in the order they were received
+        this.handlerExecutor = Executors.newSingleThreadExecutor(ConcurrentUtil.carbonThreadFactory(logger, "MessagingHandler"));
+        this.dispatcher = new PacketDispatcher(logger, metrics.histogram(CarbonMetrics.Stage.BROKER_RECEIVE));
+        handlerImpl.addHandler(new CarbonChatPacketHandler(logger, carbonChat, this, userManager, networkUsers, whisper, partyInvites, this.dispatcher, this.handlerExecutor));
 
         try {
             this.messagingService = this.initMessagingService(
@@ -159,47 +185,83 @@ public class MessagingManager {
         this.packetService.flushQueue();
 
         // Broadcast keepalive packets
-        this.scheduledExecutor.scheduleAtFixedRate(() -> {
-            this.packetService.queuePacket(new KeepAlivePacket(serverId));
-            this.packetService.flushQueue();
-        }, 5, 5, TimeUnit.SECONDS);
+        this.scheduledExecutor.scheduleAtFixedRate(
+            () -> this.batcher.queue(PacketLane.BULK, new KeepAlivePacket(serverId)), 5, 5, TimeUnit.SECONDS);
 
-        this.scheduledExecutor.scheduleAtFixedRate(() -> {
-            try {
-                this.packetService.flushQueue();
-            } catch (final IndexOutOfBoundsException ignored) {
+        // Lets other servers detect missed player list changes
+        this.scheduledExecutor.scheduleAtFixedRate(networkUsers::sendDigest, 30, 30, TimeUnit.SECONDS);
 
-            }
-        }, 0, 250, TimeUnit.MILLISECONDS);
+        // Our own packets are flushed by the batcher, this only picks up packets the messenger queues itself
+        this.scheduledExecutor.scheduleAtFixedRate(this.batcher::flush, 1, 1, TimeUnit.SECONDS);
     }
 
     public PacketService requirePacketService() {
         return Objects.requireNonNull(this.packetService, "packetService");
     }
 
-    private void withPacketService(final Consumer<PacketService> consumer) {
-        if (this.packetService != null) {
-            consumer.accept(this.packetService);
+    private void withBatcher(final Consumer<PacketBatcher> consumer) {
+        if (this.packetService != null && this.batcher != null) {
+            consumer.accept(this.batcher);
         }
     }
 
-    public void queuePacketAndFlush(final Supplier<? extends AbstractPacket> makePacket) {
-        this.withPacketService(service -> {
-            service.queuePacket(makePacket.get());
-            service.flushQueue();
+    public void queuePacket(final PacketLane lane, final Supplier<? extends AbstractPacket> makePacket) {
+        this.withBatcher(batcher -> {
+            final AbstractPacket packet = makePacket.get();
+            if (packet instanceof CarbonPacket carbonPacket) {
+                carbonPacket.compactComponents(this.peersSupport(COMPACT_COMPONENTS_VERSION));
+            }
+            batcher.queue(lane, packet);
         });
     }
 
-    public void queuePacket(final Supplier<? extends AbstractPacket> makePacket) {
-        this.withPacketService(service -> service.queuePacket(makePacket.get()));
+    /**
+     * Checks whether every server on the network understands the given protocol version.
+     *
+     * <p>Until a peer has announced its version it may be on v0, so this is false while no peer is known.</p>
+     *
+     * @param protocolVersion the protocol version
+     * @return whether at least one peer is known and all known peers are on the version or newer
+     */
+    public boolean peersSupport(final byte protocolVersion) {
+        if (this.peerVersions.isEmpty()) {
+            return false;
+        }
+        for (final byte version : this.peerVersions.values()) {
+            if (version < protocolVersion) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public BrokerType brokerType() {
+        return this.brokerType;
+    }
+
+    public Map<PacketLane, PacketBatcher.LaneStats> batchStats() {
+        if (this.batcher == null) {
+            return new EnumMap<>(PacketLane.class);
+        }
+        return this.batcher.stats();
+    }
+
+    public Map<String, PacketDispatcher.PacketStats> packetStats() {
+        if (this.dispatcher == null) {
+            return Map.of();
+        }
+        return this.dispatcher.stats();
     }
 
     public void onShutdown() {
         if (this.scheduledExecutor != null) {
             ConcurrentUtil.shutdownExecutor(this.scheduledExecutor, TimeUnit.MILLISECONDS, 500);
         }
+        if (this.handlerExecutor != null) {
+            ConcurrentUtil.shutdownExecutor(this.handlerExecutor, TimeUnit.MILLISECONDS, 500);
+        }
         if (this.packetService != null) {
-            this.packetService.flushQueue();
+            this.batcher.flush();
             this.packetService.shutdown();
             this.packetService = null;
         }
@@ -270,30 +332,41 @@ public class MessagingManager {
 
     private static final class CarbonServerHandler extends AbstractServerMessagingHandler {
 
-        private final CarbonServer server;
-        private final PacketFactory packetFactory;
+        private final NetworkUsers networkUsers;
+        private final Map<UUID, Byte> peerVersions;
 
         private CarbonServerHandler(
-            final @NonNull CarbonServer server,
             final @NonNull UUID serverId,
             final @NonNull PacketService packetService,
             final @NonNull MessagingHandler messagingHandler,
-            final @NonNull PacketFactory packetFactory
+            final @NonNull NetworkUsers networkUsers,
+            final @NonNull Map<UUID, Byte> peerVersions
         ) {
             super(serverId, packetService, messagingHandler);
-            this.server = server;
-            this.packetFactory = packetFactory;
+            this.networkUsers = networkUsers;
+            this.peerVersions = peerVersions;
         }
 
         @Override
         protected void handleInitialization(final @NonNull InitializationPacket packet) {
             super.handleInitialization(packet);
-            final List<? extends CarbonPlayer> players = this.server.players();
-            final Map<UUID, String> map = new HashMap<>();
-            for (final CarbonPlayer player : players) {
-                map.put(player.uuid(), player.username());
-            }
-            this.packetService.queuePacket(this.packetFactory.localPlayersPacket(map));
+            this.peerVersions.put(packet.getServer(), packet.getPacketVersion());
+            // the server (re)started, and numbers its player list changes from scratch
+            this.networkUsers.forgetServer(packet.getServer());
+            this.networkUsers.announceLocalPlayers();
+        }
+
+        @Override
+        protected void handlePacketVersion(final @NonNull PacketVersionPacket packet) {
+            super.handlePacketVersion(packet);
+            this.peerVersions.put(packet.getServer(), packet.getPacketVersion());
+        }
+
+        @Override
+        protected void handleShutdown(final @NonNull ShutdownPacket packet) {
+            super.handleShutdown(packet);
+            this.peerVersions.remove(packet.getServer());
+            this.networkUsers.forgetServer(packet.getServer());
         }
 
     }
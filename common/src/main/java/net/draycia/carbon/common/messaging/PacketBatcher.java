@@ -0,0 +1,158 @@
+/*
+ * CarbonChat
+ *
+ * Copyright (c) 2024 Josua Parks (Vicarious)
+ *                    Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.draycia.carbon.common.messaging;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import net.draycia.carbon.common.metrics.LatencyHistogram;
+import ninja.egg82.messenger.packets.AbstractPacket;
+import ninja.egg82.messenger.services.PacketService;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+/**
+ * Decides when to flush the {@link PacketService} queue, based on the thresholds of each {@link PacketLane}.
+ */
+@DefaultQualifier(NonNull.class)
+public final class PacketBatcher {
+
+    private final PacketService packetService;
+    private final ScheduledExecutorService scheduler;
+    private final LatencyHistogram publishLatency;
+    private final Map<PacketLane, LaneState> lanes = new EnumMap<>(PacketLane.class);
+    private @Nullable ScheduledFuture<?> scheduledFlush;
+    private long scheduledDeadline;
+
+    PacketBatcher(final PacketService packetService, final ScheduledExecutorService scheduler, final LatencyHistogram publishLatency) {
+        this.packetService = packetService;
+        this.scheduler = scheduler;
+        this.publishLatency = publishLatency;
+        for (final PacketLane lane : PacketLane.values()) {
+            this.lanes.put(lane, new LaneState());
+        }
+    }
+
+    public void queue(final PacketLane lane, final AbstractPacket packet) {
+        final boolean flushNow;
+        synchronized (this) {
+            this.packetService.queuePacket(packet);
+            final LaneState state = this.lanes.get(lane);
+            final long now = System.nanoTime();
+            if (state.pending == 0) {
+                state.oldestNanos = now;
+            }
+            state.pending++;
+            state.packets.increment();
+            flushNow = state.pending >= lane.maxPackets();
+            if (!flushNow) {
+                this.scheduleFlush(state.oldestNanos + lane.maxAgeNanos(), now);
+            }
+        }
+        if (flushNow) {
+            this.flush();
+        }
+    }
+
+    private void scheduleFlush(final long deadline, final long now) {
+        if (this.scheduledFlush != null && this.scheduledDeadline <= deadline) {
+            return;
+        }
+        if (this.scheduledFlush != null) {
+            this.scheduledFlush.cancel(false);
+        }
+        this.scheduledDeadline = deadline;
+        this.scheduledFlush = this.scheduler.schedule(this::flush, Math.max(0, deadline - now), TimeUnit.NANOSECONDS);
+    }
+
+    public void flush() {
+        synchronized (this) {
+            final long now = System.nanoTime();
+            for (final LaneState state : this.lanes.values()) {
+                if (state.pending == 0) {
+                    continue;
+                }
+                final long waited = now - state.oldestNanos;
+                state.flushes.increment();
+                state.totalWaitNanos.add(waited);
+                state.maxWaitNanos = Math.max(state.maxWaitNanos, waited);
+                state.pending = 0;
+            }
+            if (this.scheduledFlush != null) {
+                this.scheduledFlush.cancel(false);
+                this.scheduledFlush = null;
+            }
+        }
+        final long start = System.nanoTime();
+        try {
+            this.packetService.flushQueue();
+        } catch (final IndexOutOfBoundsException ignored) {
+
+        }
+        this.publishLatency.recordSince(start);
+    }
+
+    public synchronized Map<PacketLane, LaneStats> stats() {
+        final Map<PacketLane, LaneStats> stats = new EnumMap<>(PacketLane.class);
+        this.lanes.forEach((lane, state) -> stats.put(lane, new LaneStats(
+            state.packets.sum(),
+            state.flushes.sum(),
+            state.totalWaitNanos.sum(),
+            state.maxWaitNanos
+        )));
+        return stats;
+    }
+
+    /**
+     * Counters for a lane.
+     *
+     * @param packets        packets queued
+     * @param flushes        flushes which published packets of this lane
+     * @param totalWaitNanos summed age of the oldest queued packet at each flush
+     * @param maxWaitNanos   highest age of the oldest queued packet at a flush
+     */
+    public record LaneStats(long packets, long flushes, long totalWaitNanos, long maxWaitNanos) {
+
+        public double packetsPerFlush() {
+            return this.flushes == 0 ? 0 : (double) this.packets / this.flushes;
+        }
+
+        public long averageWaitNanos() {
+            return this.flushes == 0 ? 0 : this.totalWaitNanos / this.flushes;
+        }
+
+    }
+
+    private static final class LaneState {
+
+        private final LongAdder packets = new LongAdder();
+        private final LongAdder flushes = new LongAdder();
+        private final LongAdder totalWaitNanos = new LongAdder();
+        private int pending;
+        private long oldestNanos;
+        private long maxWaitNanos;
+
+    }
+
+}
@@ -0,0 +1,145 @@
+/*
+ * CarbonChat
+ *
+ * Copyright (c) 2024 Josua Parks (Vicarious)
+ *                    Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.draycia.carbon.common.messaging;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import net.draycia.carbon.common.metrics.LatencyHistogram;
+import ninja.egg82.messenger.packets.Packet;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+/**
+ * Routes inbound packets to their handler by exact packet class, running each handler on the
+ * executor it was registered with and keeping per-type counters.
+ */
+@DefaultQualifier(NonNull.class)
+public final class PacketDispatcher {
+
+    /**
+     * Runs the handler on the thread that received the packet.
+     */
+    public static final Executor INLINE = Runnable::run;
+
+    private final Logger logger;
+    private final LatencyHistogram handleLatency;
+    private final Map<Class<?>, Route<?>> routes = new ConcurrentHashMap<>();
+
+    PacketDispatcher(final Logger logger, final LatencyHistogram handleLatency) {
+        this.logger = logger;
+        this.handleLatency = handleLatency;
+    }
+
+    public <P extends Packet> void register(final Class<P> type, final Executor executor, final Consumer<? super P> handler) {
+        this.routes.put(type, new Route<>(type, executor, handler));
+    }
+
+    /**
+     * Dispatches a packet to its handler.
+     *
+     * @param packet the packet
+     * @return whether a handler is registered for the packet's type
+     */
+    public boolean dispatch(final Packet packet) {
+        final @Nullable Route<?> route = this.routes.get(packet.getClass());
+
+        if (route == null) {
+            return false;
+        }
+
+        route.dispatch(packet);
+        return true;
+    }
+
+    public Map<String, PacketStats> stats() {
+        final Map<String, PacketStats> stats = new LinkedHashMap<>();
+        for (final Route<?> route : this.routes.values()) {
+            stats.put(route.type.getSimpleName(), route.stats());
+        }
+        return stats;
+    }
+
+    public record PacketStats(long received, long handled, long failed, long queued) {
+    }
+
+    private final class Route<P extends Packet> {
+
+        private final Class<P> type;
+        private final Executor executor;
+        private final Consumer<? super P> handler;
+        private final LongAdder received = new LongAdder();
+        private final LongAdder handled = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder queued = new LongAdder();
+
+        Route(final Class<P> type, final Executor executor, final Consumer<? super P> handler) {
+            this.type = type;
+            this.executor = executor;
+            this.handler = handler;
+        }
+
+        void dispatch(final Packet packet) {
+            final P cast = this.type.cast(packet);
+            this.received.increment();
+
+            if (this.executor == INLINE) {
+                this.handle(cast);
+                return;
+            }
+
+            this.queued.increment();
+            try {
+                this.executor.execute(() -> {
+                    this.queued.decrement();
+                    this.handle(cast);
+                });
+            } catch (final RejectedExecutionException e) {
+                // shutting down
+                this.queued.decrement();
+                this.failed.increment();
+            }
+        }
+
+        private void handle(final P packet) {
+            final long start = System.nanoTime();
+            try {
+                this.handler.accept(packet);
+                this.handled.increment();
+            } catch (final Exception e) {
+                this.failed.increment();
+                PacketDispatcher.this.logger.warn("Failed to handle packet {}", packet, e);
+            }
+            PacketDispatcher.this.handleLatency.recordSince(start);
+        }
+
+        PacketStats stats() {
+            return new PacketStats(this.received.sum(), this.handled.sum(), this.failed.sum(), this.queued.sum());
+        }
+
+    }
+
+}
@@ -0,0 +1,57 @@
+/*
+ * CarbonChat
+ *
+ * Copyright (c) 2024 Josua Parks (Vicarious)
+ *                    Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.draycia.carbon.common.messaging;
+
+import java.util.concurrent.TimeUnit;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+/**
+ * Batching class for outgoing packets. A lane's queued packets are published once
+ * it reaches either its size or age threshold.
+ */
+@DefaultQualifier(NonNull.class)
+public enum PacketLane {
+    /**
+     * Packets which players are waiting on, i.e. chat messages, whispers and party notifications.
+     */
+    LOW_LATENCY(16, TimeUnit.MILLISECONDS.toNanos(5)),
+    /**
+     * Background traffic, i.e. save notifications and player list updates.
+     */
+    BULK(64, TimeUnit.MILLISECONDS.toNanos(250));
+
+    private final int maxPackets;
+    private final long maxAgeNanos;
+
+    PacketLane(final int maxPackets, final long maxAgeNanos) {
+        this.maxPackets = maxPackets;
+        this.maxAgeNanos = maxAgeNanos;
+    }
+
+    public int maxPackets() {
+        return this.maxPackets;
+    }
+
+    public long maxAgeNanos() {
+        return this.maxAgeNanos;
+    }
+
+}
@@ -35,16 +35,38 @@ import org.jetbrains.annotations.NotNull;
 public abstract class CarbonPacket extends AbstractPacket {
 
     private final GsonComponentSerializer componentSerializer = GsonComponentSerializer.gson();
+    private boolean compactComponents;
 
     protected CarbonPacket(final @NotNull UUID sender) {
         super(sender);
     }
 
+    /**
+     * Sets whether components are written with {@link ComponentCodec} instead of as JSON.
+     * Only enable this when every server on the network can read the compact format.
+     *
+     * @param compactComponents whether to use the compact format
+     */
+    public final void compactComponents(final boolean compactComponents) {
+        this.compactComponents = compactComponents;
+    }
+
+    // JSON is written as a length prefixed string which is never empty, so a zero length marks the compact format
     protected final void writeComponent(final Component component, final ByteBuf buffer) {
-        this.writeString(this.componentSerializer.serialize(component), buffer);
+        if (this.compactComponents) {
+            this.writeVarInt(0, buffer);
+            ComponentCodec.write(component, buffer);
+        } else {
+            this.writeString(this.componentSerializer.serialize(component), buffer);
+        }
     }
 
     protected final Component readComponent(final ByteBuf buffer) {
+        final int start = buffer.readerIndex();
+        if (this.readVarInt(buffer) == 0) {
+            return ComponentCodec.read(buffer);
+        }
+        buffer.readerIndex(start);
         return this.componentSerializer.deserialize(this.readString(buffer));
     }
 
@@ -0,0 +1,435 @@
+/*
+ * CarbonChat
+ *
+ * Copyright (c) 2024 Josua Parks (Vicarious)
+ *                    Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.draycia.carbon.common.messaging.packets;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import net.kyori.adventure.key.Key;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.ComponentBuilder;
+import net.kyori.adventure.text.KeybindComponent;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.TranslatableComponent;
+import net.kyori.adventure.text.TranslationArgument;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.framework.qual.DefaultQualifier;
+import org.intellij.lang.annotations.Subst;
+
+/**
+ * Binary encoding for component trees, used instead of JSON once every server on the network understands it.
+ *
+ * <p>Text, translatable and keybind nodes are written field by field. Keys, fonts, translation keys and
+ * click values are interned per tree, so repeated values are written once and referenced by index after.
+ * Nodes this codec doesn't cover (hover events, score, selector and NBT components) are embedded as JSON.
+ * Trees which encode to at least {@link #COMPRESSION_THRESHOLD} bytes are deflated.</p>
+ */
+@DefaultQualifier(NonNull.class)
+final class ComponentCodec {
+
+    static final int COMPRESSION_THRESHOLD = 256;
+
+    private static final int FLAG_COMPRESSED = 1;
+
+    private static final int NODE_TEXT = 0;
+    private static final int NODE_TRANSLATABLE = 1;
+    private static final int NODE_KEYBIND = 2;
+    private static final int NODE_JSON = 3;
+
+    private static final int STYLE_COLOR = 1;
+    private static final int STYLE_DECORATIONS = 1 << 1;
+    private static final int STYLE_INSERTION = 1 << 2;
+    private static final int STYLE_FONT = 1 << 3;
+    private static final int STYLE_CLICK = 1 << 4;
+
+    // fixed tag tables, the index is what goes on the wire. Only ever append, so Adventure reordering or adding
+    // constants can't change the meaning of data written by other servers. Values missing here are sent as JSON.
+    private static final TextDecoration[] DECORATIONS = {
+        TextDecoration.OBFUSCATED,
+        TextDecoration.BOLD,
+        TextDecoration.STRIKETHROUGH,
+        TextDecoration.UNDERLINED,
+        TextDecoration.ITALIC
+    };
+    private static final TextDecoration.State[] DECORATION_STATES = {
+        TextDecoration.State.NOT_SET,
+        TextDecoration.State.FALSE,
+        TextDecoration.State.TRUE
+    };
+    private static final ClickEvent.Action[] CLICK_ACTIONS = {
+        ClickEvent.Action.OPEN_URL,
+        ClickEvent.Action.OPEN_FILE,
+        ClickEvent.Action.RUN_COMMAND,
+        ClickEvent.Action.SUGGEST_COMMAND,
+        ClickEvent.Action.CHANGE_PAGE,
+        ClickEvent.Action.COPY_TO_CLIPBOARD
+    };
+    private static final GsonComponentSerializer GSON = GsonComponentSerializer.gson();
+
+    private ComponentCodec() {
+    }
+
+    static void write(final Component component, final ByteBuf buffer) {
+        final ByteBuf body = Unpooled.buffer();
+        try {
+            new Writer(body).component(component);
+            final int length = body.readableBytes();
+            if (length < COMPRESSION_THRESHOLD) {
+                buffer.writeByte(0);
+                writeVarInt(length, buffer);
+                buffer.writeBytes(body);
+                return;
+            }
+            final byte[] compressed = deflate(ByteBufUtil.getBytes(body));
+            buffer.writeByte(FLAG_COMPRESSED);
+            writeVarInt(length, buffer);
+            writeVarInt(compressed.length, buffer);
+            buffer.writeBytes(compressed);
+        } finally {
+            body.release();
+        }
+    }
+
+    static Component read(final ByteBuf buffer) {
+        final int flags = buffer.readUnsignedByte();
+        final int length = readVarInt(buffer);
+        if ((flags & FLAG_COMPRESSED) == 0) {
+            return new Reader(buffer.readSlice(length)).component();
+        }
+        final byte[] compressed = new byte[readVarInt(buffer)];
+        buffer.readBytes(compressed);
+        return new Reader(Unpooled.wrappedBuffer(inflate(compressed, length))).component();
+    }
+
+    private static byte[] deflate(final byte[] input) {
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            final ByteBuf out = Unpooled.buffer(input.length / 2);
+            final byte[] chunk = new byte[512];
+            while (!deflater.finished()) {
+                out.writeBytes(chunk, 0, deflater.deflate(chunk));
+            }
+            return ByteBufUtil.getBytes(out);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(final byte[] input, final int length) {
+        final Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input);
+            final byte[] out = new byte[length];
+            int read = 0;
+            while (read < length) {
+                final int n = inflater.inflate(out, read, length - read);
+                if (n == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Compressed component ended after " + read + " of " + length + " bytes");
+                }
+                read += n;
+            }
+            return out;
+        } catch (final DataFormatException e) {
+            throw new IllegalStateException("Malformed compressed component", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static <T> int tag(final T[] table, final T value) {
+        for (int i = 0; i < table.length; i++) {
+            if (table[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static <T> T fromTag(final T[] table, final int tag) {
+        if (tag < 0 || tag >= table.length) {
+            throw new IllegalStateException("Unknown tag " + tag);
+        }
+        return table[tag];
+    }
+
+    private static void writeVarInt(final int value, final ByteBuf buffer) {
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            buffer.writeByte((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        buffer.writeByte(remaining);
+    }
+
+    private static int readVarInt(final ByteBuf buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            final byte b = buffer.readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("VarInt too big");
+    }
+
+    private static void writeString(final String value, final ByteBuf buffer) {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length, buffer);
+        buffer.writeBytes(bytes);
+    }
+
+    private static String readString(final ByteBuf buffer) {
+        final int length = readVarInt(buffer);
+        return buffer.readCharSequence(length, StandardCharsets.UTF_8).toString();
+    }
+
+    private static final class Writer {
+
+        private final ByteBuf buffer;
+        private final Map<String, Integer> interned = new HashMap<>();
+
+        private Writer(final ByteBuf buffer) {
+            this.buffer = buffer;
+        }
+
+        private void component(final Component component) {
+            if (!encodable(component)) {
+                writeVarInt(NODE_JSON, this.buffer);
+                writeString(GSON.serialize(component), this.buffer);
+                return;
+            }
+
+            if (component instanceof TextComponent text) {
+                writeVarInt(NODE_TEXT, this.buffer);
+                writeString(text.content(), this.buffer);
+            } else if (component instanceof TranslatableComponent translatable) {
+                writeVarInt(NODE_TRANSLATABLE, this.buffer);
+                this.interned(translatable.key());
+                final @Nullable String fallback = translatable.fallback();
+                this.buffer.writeBoolean(fallback != null);
+                if (fallback != null) {
+                    writeString(fallback, this.buffer);
+                }
+                writeVarInt(translatable.arguments().size(), this.buffer);
+                for (final TranslationArgument argument : translatable.arguments()) {
+                    this.component((Component) argument.value());
+                }
+            } else {
+                writeVarInt(NODE_KEYBIND, this.buffer);
+                this.interned(((KeybindComponent) component).keybind());
+            }
+
+            this.style(component.style());
+
+            writeVarInt(component.children().size(), this.buffer);
+            for (final Component child : component.children()) {
+                this.component(child);
+            }
+        }
+
+        private static boolean encodable(final Component component) {
+            if (component.hoverEvent() != null) {
+                return false;
+            }
+            final @Nullable ClickEvent click = component.clickEvent();
+            if (click != null && tag(CLICK_ACTIONS, click.action()) < 0) {
+                return false;
+            }
+            for (final TextDecoration decoration : TextDecoration.values()) {
+                if (tag(DECORATIONS, decoration) < 0 && component.decoration(decoration) != TextDecoration.State.NOT_SET) {
+                    return false;
+                }
+            }
+            if (component instanceof TranslatableComponent translatable) {
+                for (final TranslationArgument argument : translatable.arguments()) {
+                    if (!(argument.value() instanceof Component)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            return component instanceof TextComponent || component instanceof KeybindComponent;
+        }
+
+        private void style(final Style style) {
+            final @Nullable TextColor color = style.color();
+            final @Nullable String insertion = style.insertion();
+            final @Nullable Key font = style.font();
+            final @Nullable ClickEvent click = style.clickEvent();
+
+            int decorations = 0;
+            for (int i = 0; i < DECORATIONS.length; i++) {
+                decorations |= tag(DECORATION_STATES, style.decoration(DECORATIONS[i])) << (i * 2);
+            }
+
+            int flags = 0;
+            if (color != null) {
+                flags |= STYLE_COLOR;
+            }
+            if (decorations != 0) {
+                flags |= STYLE_DECORATIONS;
+            }
+            if (insertion != null) {
+                flags |= STYLE_INSERTION;
+            }
+            if (font != null) {
+                flags |= STYLE_FONT;
+            }
+            if (click != null) {
+                flags |= STYLE_CLICK;
+            }
+            writeVarInt(flags, this.buffer);
+
+            if (color != null) {
+                this.buffer.writeMedium(color.value());
+            }
+            if (decorations != 0) {
+                writeVarInt(decorations, this.buffer);
+            }
+            if (insertion != null) {
+                writeString(insertion, this.buffer);
+            }
+            if (font != null) {
+                this.interned(font.asString());
+            }
+            if (click != null) {
+                writeVarInt(tag(CLICK_ACTIONS, click.action()), this.buffer);
+                this.interned(click.value());
+            }
+        }
+
+        // first occurrence: (length << 1) followed by the bytes, repeats: (index << 1) | 1
+        private void interned(final String value) {
+            final @Nullable Integer index = this.interned.get(value);
+            if (index != null) {
+                writeVarInt(index << 1 | 1, this.buffer);
+                return;
+            }
+            this.interned.put(value, this.interned.size());
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length << 1, this.buffer);
+            this.buffer.writeBytes(bytes);
+        }
+
+    }
+
+    private static final class Reader {
+
+        private final ByteBuf buffer;
+        private final List<String> interned = new ArrayList<>();
+
+        private Reader(final ByteBuf buffer) {
+            this.buffer = buffer;
+        }
+
+        private Component component() {
+            final int node = readVarInt(this.buffer);
+            if (node == NODE_JSON) {
+                return GSON.deserialize(readString(this.buffer));
+            }
+            final ComponentBuilder<?, ?> builder = switch (node) {
+                case NODE_TEXT -> Component.text().content(readString(this.buffer));
+                case NODE_TRANSLATABLE -> {
+                    final TranslatableComponent.Builder translatable = Component.translatable().key(this.interned());
+                    if (this.buffer.readBoolean()) {
+                        translatable.fallback(readString(this.buffer));
+                    }
+                    final int arguments = readVarInt(this.buffer);
+                    final List<Component> components = new ArrayList<>(arguments);
+                    for (int i = 0; i < arguments; i++) {
+                        components.add(this.component());
+                    }
+                    yield translatable.arguments(components);
+                }
+                case NODE_KEYBIND -> Component.keybind().keybind(this.interned());
+                default -> throw new IllegalStateException("Unknown component node " + node);
+            };
+
+            builder.style(this.style());
+
+            final int children = readVarInt(this.buffer);
+            for (int i = 0; i < children; i++) {
+                builder.append(this.component());
+            }
+            return builder.build();
+        }
+
+        private Style style() {
+            final int flags = readVarInt(this.buffer);
+            if (flags == 0) {
+                return Style.empty();
+            }
+            final Style.Builder style = Style.style();
+            if ((flags & STYLE_COLOR) != 0) {
+                final int value = this.buffer.readUnsignedMedium();
+                final @Nullable NamedTextColor named = NamedTextColor.namedColor(value);
+                style.color(named != null ? named : TextColor.color(value));
+            }
+            if ((flags & STYLE_DECORATIONS) != 0) {
+                final int decorations = readVarInt(this.buffer);
+                for (int i = 0; i < DECORATIONS.length; i++) {
+                    style.decoration(DECORATIONS[i], fromTag(DECORATION_STATES, (decorations >> (i * 2)) & 0b11));
+                }
+            }
+            if ((flags & STYLE_INSERTION) != 0) {
+                style.insertion(readString(this.buffer));
+            }
+            if ((flags & STYLE_FONT) != 0) {
+                final @Subst("minecraft:default") String font = this.interned();
+                style.font(Key.key(font));
+            }
+            if ((flags & STYLE_CLICK) != 0) {
+                final ClickEvent.Action action = fromTag(CLICK_ACTIONS, readVarInt(this.buffer));
+                style.clickEvent(ClickEvent.clickEvent(action, this.interned()));
+            }
+            return style.build();
+        }
+
+        private String interned() {
+            final int header = readVarInt(this.buffer);
+            if ((header & 1) != 0) {
+                return this.interned.get(header >>> 1);
+            }
+            final String value = this.buffer.readCharSequence(header >>> 1, StandardCharsets.UTF_8).toString();
+            this.interned.add(value);
+            return value;
+        }
+
+    }
+
+}
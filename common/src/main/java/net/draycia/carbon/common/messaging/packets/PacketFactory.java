@@ -35,19 +35,15 @@ public interface PacketFactory {
 
     LocalPlayersPacket localPlayersPacket(Map<UUID, String> players);
 
-    default LocalPlayersPacket clearLocalPlayersPacket() {
-        return this.localPlayersPacket(Map.of());
-    }
+    SequencedLocalPlayersPacket sequencedLocalPlayersPacket(Map<UUID, String> players, long sequence);
 
     LocalPlayerChangePacket localPlayerChangePacket(UUID player, @Nullable String name, LocalPlayerChangePacket.ChangeType type);
 
-    default LocalPlayerChangePacket addLocalPlayerPacket(final UUID id, final String name) {
-        return this.localPlayerChangePacket(id, name, LocalPlayerChangePacket.ChangeType.ADD);
-    }
+    SequencedLocalPlayerChangePacket sequencedLocalPlayerChangePacket(UUID player, @Nullable String name, LocalPlayerChangePacket.ChangeType type, long sequence);
 
-    default LocalPlayerChangePacket removeLocalPlayerPacket(final UUID id) {
-        return this.localPlayerChangePacket(id, null, LocalPlayerChangePacket.ChangeType.REMOVE);
-    }
+    LocalPlayersDigestPacket localPlayersDigest(@Assisted("sequence") long sequence, @Assisted("checksum") long checksum);
+
+    LocalPlayersRequestPacket localPlayersRequest(UUID target);
 
     WhisperPacket whisperPacket(@Assisted("from") UUID from, @Assisted("to") UUID to, Component msg);
 
@@ -0,0 +1,78 @@
+/*
+ * CarbonChat
+ *
+ * Copyright (c) 2024 Josua Parks (Vicarious)
+ *                    Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.draycia.carbon.common.messaging.packets;
+
+import com.google.inject.assistedinject.Assisted;
+import com.google.inject.assistedinject.AssistedInject;
+import io.netty.buffer.ByteBuf;
+import java.util.Map;
+import java.util.UUID;
+import net.draycia.carbon.common.messaging.ServerId;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+/**
+ * A {@link LocalPlayersPacket} numbered in the sender's sequence of player list changes, sent once every
+ * server on the network understands it.
+ */
+@DefaultQualifier(NonNull.class)
+public final class SequencedLocalPlayersPacket extends CarbonPacket {
+
+    private @MonotonicNonNull Map<UUID, String> players;
+    private long sequence;
+
+    @AssistedInject
+    public SequencedLocalPlayersPacket(
+        final @ServerId UUID serverId,
+        final @Assisted Map<UUID, String> players,
+        final @Assisted long sequence
+    ) {
+        super(serverId);
+        this.players = players;
+        this.sequence = sequence;
+    }
+
+    public SequencedLocalPlayersPacket(final UUID sender, final ByteBuf data) {
+        super(sender);
+        this.read(data);
+    }
+
+    public Map<UUID, String> players() {
+        return this.players;
+    }
+
+    public long sequence() {
+        return this.sequence;
+    }
+
+    @Override
+    public void read(final ByteBuf buffer) {
+        this.sequence = buffer.readLong();
+        this.players = this.readMap(buffer, this::readUUID, this::readString);
+    }
+
+    @Override
+    public void write(final ByteBuf buffer) {
+        buffer.writeLong(this.sequence);
+        this.writeMap(this.players, this::writeUUID, this::writeString, buffer);
+    }
+
+}
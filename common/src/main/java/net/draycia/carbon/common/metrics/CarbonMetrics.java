@@ -0,0 +1,86 @@
+/*
+ * CarbonChat
+ *
+ * Copyright (c) 2024 Josua Parks (Vicarious)
+ *                    Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.draycia.carbon.common.metrics;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+/**
+ * Latency histograms for each stage of handling a chat message, and for the storage and messaging work behind
+ * it. Shown by {@code /carbondebug metrics} and, when enabled, served to Prometheus by {@link PrometheusEndpoint}.
+ */
+@Singleton
+@DefaultQualifier(NonNull.class)
+public final class CarbonMetrics {
+
+    private final LatencyHistogram[] histograms = new LatencyHistogram[Stage.values().length];
+
+    @Inject
+    private CarbonMetrics() {
+        for (int i = 0; i < this.histograms.length; i++) {
+            this.histograms[i] = new LatencyHistogram();
+        }
+    }
+
+    public LatencyHistogram histogram(final Stage stage) {
+        return this.histograms[stage.ordinal()];
+    }
+
+    /**
+     * Records the time passed since {@code startNanos} for the stage.
+     *
+     * @param stage      the stage
+     * @param startNanos a {@link System#nanoTime()} taken when the stage started
+     */
+    public void record(final Stage stage, final long startNanos) {
+        this.histograms[stage.ordinal()].recordSince(startNanos);
+    }
+
+    public enum Stage {
+        CHAT_FILTERS("chat_filters", "Chat placeholders and filters"),
+        EARLY_CHAT_EVENT("early_chat_event", "CarbonEarlyChatEvent listeners"),
+        CHAT_EVENT("chat_event", "CarbonChatEvent listeners"),
+        RECIPIENTS("recipients", "Resolving a channel's recipients"),
+        RENDER("render", "Rendering a message for one recipient"),
+        STORAGE_LOAD("storage_load", "Loading a batch of players"),
+        STORAGE_SAVE("storage_save", "Saving a player or party"),
+        BROKER_PUBLISH("broker_publish", "Publishing queued packets"),
+        BROKER_RECEIVE("broker_receive", "Handling a received packet");
+
+        private final String id;
+        private final String description;
+
+        Stage(final String id, final String description) {
+            this.id = id;
+            this.description = description;
+        }
+
+        public String id() {
+            return this.id;
+        }
+
+        public String description() {
+            return this.description;
+        }
+    }
+
+}
@@ -0,0 +1,128 @@
+/*
+ * CarbonChat
+ *
+ * Copyright (c) 2024 Josua Parks (Vicarious)
+ *                    Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.draycia.carbon.common.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+/**
+ * A lock-free histogram of durations in nanoseconds.
+ *
+ * <p>Values are counted in buckets with 16 linear steps per power of two, so a recorded value is reported with an
+ * error of at most 1/16 (about 6%), no matter how large it is. Recording is a few atomic increments and never
+ * allocates.</p>
+ */
+@DefaultQualifier(NonNull.class)
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records the time passed since {@code startNanos}.
+     *
+     * @param startNanos a {@link System#nanoTime()} taken when the measured work started
+     */
+    public void recordSince(final long startNanos) {
+        this.record(System.nanoTime() - startNanos);
+    }
+
+    public void record(final long nanos) {
+        final long value = Math.max(0, nanos);
+        this.counts.incrementAndGet(bucket(value));
+        this.sum.add(value);
+        this.max.accumulate(value);
+    }
+
+    public Snapshot snapshot() {
+        final long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = this.counts.get(i);
+            count += counts[i];
+        }
+        return new Snapshot(counts, count, this.sum.sum(), this.max.get());
+    }
+
+    static int bucket(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    // the highest value counted in the bucket, the top bucket wraps around to Long.MAX_VALUE
+    static long highestValue(final int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        final int shift = bucket / SUB_BUCKETS - 1;
+        final long subBucket = bucket % SUB_BUCKETS;
+        return ((SUB_BUCKETS + subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * The histogram's counts at one point in time.
+     *
+     * @param counts   count of each bucket
+     * @param count    number of recorded values
+     * @param sumNanos sum of the recorded values
+     * @param maxNanos largest recorded value
+     */
+    public record Snapshot(long[] counts, long count, long sumNanos, long maxNanos) {
+
+        /**
+         * Gets the value below which the given fraction of recorded values fall.
+         *
+         * @param quantile fraction between 0 and 1
+         * @return the value, or 0 if nothing was recorded
+         */
+        public long quantile(final double quantile) {
+            if (this.count == 0) {
+                return 0;
+            }
+            final long rank = Math.max(1, (long) Math.ceil(this.count * quantile));
+            long seen = 0;
+            for (int i = 0; i < this.counts.length; i++) {
+                seen += this.counts[i];
+                if (seen >= rank) {
+                    return Math.min(highestValue(i), this.maxNanos);
+                }
+            }
+            return this.maxNanos;
+        }
+
+        public double meanNanos() {
+            return this.count == 0 ? 0 : (double) this.sumNanos / this.count;
+        }
+
+    }
+
+}
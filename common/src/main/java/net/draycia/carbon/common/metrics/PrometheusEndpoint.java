@@ -0,0 +1,210 @@
+/*
+ * CarbonChat
+ *
+ * Copyright (c) 2024 Josua Parks (Vicarious)
+ *                    Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.draycia.carbon.common.metrics;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.Singleton;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import net.draycia.carbon.api.event.CarbonEventHandler;
+import net.draycia.carbon.common.config.ConfigManager;
+import net.draycia.carbon.common.config.MetricsSettings;
+import net.draycia.carbon.common.event.events.CarbonReloadEvent;
+import net.draycia.carbon.common.messaging.MessagingManager;
+import net.draycia.carbon.common.messaging.PacketBatcher;
+import net.draycia.carbon.common.messaging.PacketDispatcher;
+import net.draycia.carbon.common.messaging.PacketLane;
+import net.draycia.carbon.common.users.Backing;
+import net.draycia.carbon.common.users.CachingUserManager;
+import net.draycia.carbon.common.users.CarbonPlayerCommon;
+import net.draycia.carbon.common.users.SaveCoalescer;
+import net.draycia.carbon.common.users.UserManagerInternal;
+import net.draycia.carbon.common.util.ConcurrentUtil;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+/**
+ * Serves {@link CarbonMetrics} and the messaging and save counters in the Prometheus text format, when enabled
+ * in the {@link MetricsSettings}. Restarted on reload so address and port changes apply.
+ */
+@Singleton
+@DefaultQualifier(NonNull.class)
+public final class PrometheusEndpoint {
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99};
+
+    private final Logger logger;
+    private final ConfigManager configManager;
+    private final CarbonMetrics metrics;
+    private final Provider<MessagingManager> messagingManager;
+    private final Provider<UserManagerInternal<CarbonPlayerCommon>> userManager;
+    private @Nullable HttpServer server;
+    private @Nullable ExecutorService executor;
+
+    @Inject
+    private PrometheusEndpoint(
+        final Logger logger,
+        final ConfigManager configManager,
+        final CarbonMetrics metrics,
+        final Provider<MessagingManager> messagingManager,
+        final @Backing Provider<UserManagerInternal<CarbonPlayerCommon>> userManager,
+        final CarbonEventHandler events
+    ) {
+        this.logger = logger;
+        this.configManager = configManager;
+        this.metrics = metrics;
+        this.messagingManager = messagingManager;
+        this.userManager = userManager;
+
+        events.subscribe(CarbonReloadEvent.class, 0, true, event -> {
+            this.stop();
+            this.start();
+        });
+    }
+
+    public synchronized void start() {
+        final MetricsSettings settings = this.configManager.primaryConfig().metricsSettings();
+        if (this.server != null || !settings.prometheusEnabled()) {
+            return;
+        }
+
+        final HttpServer httpServer;
+        try {
+            httpServer = HttpServer.create(new InetSocketAddress(settings.bindAddress(), settings.port()), 0);
+        } catch (final IOException e) {
+            this.logger.warn("Failed to start the metrics endpoint on {}:{}", settings.bindAddress(), settings.port(), e);
+            return;
+        }
+
+        this.executor = Executors.newSingleThreadExecutor(ConcurrentUtil.carbonThreadFactory(this.logger, "PrometheusEndpoint"));
+        httpServer.setExecutor(this.executor);
+        httpServer.createContext("/metrics", this::handle);
+        httpServer.start();
+        this.server = httpServer;
+        this.logger.info("Serving metrics on http://{}:{}/metrics", settings.bindAddress(), settings.port());
+    }
+
+    public synchronized void stop() {
+        if (this.server != null) {
+            this.server.stop(0);
+            this.server = null;
+        }
+        if (this.executor != null) {
+            ConcurrentUtil.shutdownExecutor(this.executor, TimeUnit.MILLISECONDS, 500);
+            this.executor = null;
+        }
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            final byte[] body = this.scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (final OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private String scrape() {
+        final StringBuilder out = new StringBuilder();
+
+        for (final CarbonMetrics.Stage stage : CarbonMetrics.Stage.values()) {
+            final String name = "carbon_" + stage.id() + "_seconds";
+            final LatencyHistogram.Snapshot snapshot = this.metrics.histogram(stage).snapshot();
+            out.append("# HELP ").append(name).append(' ').append(stage.description()).append('\n');
+            out.append("# TYPE ").append(name).append(" summary\n");
+            for (final double quantile : QUANTILES) {
+                out.append(name).append("{quantile=\"").append(quantile).append("\"} ")
+                    .append(seconds(snapshot.quantile(quantile))).append('\n');
+            }
+            out.append(name).append("_sum ").append(seconds(snapshot.sumNanos())).append('\n');
+            out.append(name).append("_count ").append(snapshot.count()).append('\n');
+            gauge(out, name + "_max", "Largest recorded value of " + name, seconds(snapshot.maxNanos()));
+        }
+
+        if (this.userManager.get() instanceof CachingUserManager caching) {
+            final SaveCoalescer saves = caching.pendingSaves();
+            counter(out, "carbon_property_saves_requested_total", "Saves requested by player property changes", saves.requested());
+            counter(out, "carbon_property_saves_executed_total", "Saves executed for player property changes", saves.executed());
+        }
+
+        final MessagingManager messaging = this.messagingManager.get();
+        final Map<PacketLane, PacketBatcher.LaneStats> lanes = messaging.batchStats();
+        if (!lanes.isEmpty()) {
+            out.append("# HELP carbon_broker_packets_published_total Packets queued for publishing\n");
+            out.append("# TYPE carbon_broker_packets_published_total counter\n");
+            lanes.forEach((lane, stats) -> labelled(out, "carbon_broker_packets_published_total", "lane", lane.name().toLowerCase(Locale.ROOT), stats.packets()));
+            out.append("# HELP carbon_broker_flushes_total Flushes which published packets of a lane\n");
+            out.append("# TYPE carbon_broker_flushes_total counter\n");
+            lanes.forEach((lane, stats) -> labelled(out, "carbon_broker_flushes_total", "lane", lane.name().toLowerCase(Locale.ROOT), stats.flushes()));
+        }
+
+        final Map<String, PacketDispatcher.PacketStats> packets = messaging.packetStats();
+        if (!packets.isEmpty()) {
+            out.append("# HELP carbon_broker_packets_received_total Packets received, by type\n");
+            out.append("# TYPE carbon_broker_packets_received_total counter\n");
+            packets.forEach((type, stats) -> labelled(out, "carbon_broker_packets_received_total", "type", type, stats.received()));
+            out.append("# HELP carbon_broker_packets_failed_total Packets whose handler failed, by type\n");
+            out.append("# TYPE carbon_broker_packets_failed_total counter\n");
+            packets.forEach((type, stats) -> labelled(out, "carbon_broker_packets_failed_total", "type", type, stats.failed()));
+        }
+
+        return out.toString();
+    }
+
+    private static void gauge(final StringBuilder out, final String name, final String help, final String value) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" gauge\n");
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void counter(final StringBuilder out, final String name, final String help, final long value) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" counter\n");
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void labelled(final StringBuilder out, final String name, final String label, final String labelValue, final long value) {
+        out.append(name).append('{').append(label).append("=\"").append(labelValue).append("\"} ").append(value).append('\n');
+    }
+
+    private static String seconds(final long nanos) {
+        return Double.toString(nanos / 1e9);
+    }
+
+}
@@ -22,32 +22,36 @@ package net.draycia.carbon.common.users;
 import com.github.benmanes.caffeine.cache.AsyncCache;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.collect.Lists;
 import com.google.inject.Injector;
 import com.google.inject.Provider;
 import java.time.Duration;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import net.draycia.carbon.api.CarbonServer;
 import net.draycia.carbon.api.users.CarbonPlayer;
 import net.draycia.carbon.api.users.Party;
+import net.draycia.carbon.common.config.PersistenceSettings;
 import net.draycia.carbon.common.messaging.MessagingManager;
+import net.draycia.carbon.common.messaging.PacketLane;
 import net.draycia.carbon.common.messaging.packets.DisbandPartyPacket;
 import net.draycia.carbon.common.messaging.packets.PacketFactory;
 import net.draycia.carbon.common.messaging.packets.PartyChangePacket;
+import net.draycia.carbon.common.metrics.CarbonMetrics;
 import net.draycia.carbon.common.users.db.DatabaseUserManager;
-import net.draycia.carbon.common.util.ConcurrentUtil;
 import net.kyori.adventure.text.Component;
 import org.apache.logging.log4j.Logger;
 import org.checkerframework.checker.nullness.qual.NonNull;
@@ -60,16 +64,26 @@ import static net.draycia.carbon.common.users.PlayerUtils.saveExceptionHandler;
 public abstract class CachingUserManager implements UserManagerInternal<CarbonPlayerCommon> {
 
     private static final int DISBAND_DELAY = 10;
+    // saveDirty runs every 15 seconds, this many runs drain a backlog within 5 minutes
+    private static final int DIRTY_SAVE_SPREAD = 20;
+    private static final int MIN_DIRTY_SAVE_BATCH = 16;
 
     protected final Logger logger;
     protected final ProfileResolver profileResolver;
-    private final ExecutorService executor;
+    private final PersistenceExecutor persistence;
+    private final SaveCoalescer pendingSaves;
     private final Injector injector;
     private final Provider<MessagingManager> messagingManager;
+    private final Provider<NetworkUsers> networkUsers;
     private final PacketFactory packetFactory;
     private final CarbonServer server;
-    private final ReentrantLock cacheLock;
+    private final CarbonMetrics metrics;
     private final Map<UUID, CompletableFuture<CarbonPlayerCommon>> cache;
+    private final Map<UUID, CompletableFuture<CarbonPlayerCommon>> queuedLoads = new ConcurrentHashMap<>();
+    // players with changes that are not saved yet, filled by property update listeners and failed saves
+    private final Map<UUID, CarbonPlayerCommon> dirty = new ConcurrentHashMap<>();
+    private final AtomicBoolean loadFlushScheduled = new AtomicBoolean(false);
+    private final long loadBatchWindowMillis;
     private final AsyncCache<UUID, Party> partyCache;
     private final List<Runnable> queuedDisbands = new CopyOnWriteArrayList<>();
     private final Cache<UUID, Object> recentDisbands = Caffeine.newBuilder()
@@ -81,25 +95,56 @@ public abstract class CachingUserManager implements UserManagerInternal<CarbonPl
         final ProfileResolver profileResolver,
         final Injector injector,
         final Provider<MessagingManager> messagingManager,
+        final Provider<NetworkUsers> networkUsers,
         final PacketFactory packetFactory,
-        final CarbonServer server
+        final CarbonServer server,
+        final PersistenceSettings persistenceSettings,
+        final CarbonMetrics metrics
     ) {
         this.logger = logger;
-        this.executor = Executors.newSingleThreadExecutor(ConcurrentUtil.carbonThreadFactory(logger, this.getClass().getSimpleName()));
+        this.persistence = new PersistenceExecutor(logger, this.getClass().getSimpleName(), persistenceSettings);
+        this.pendingSaves = new SaveCoalescer(logger, this::save, persistenceSettings.saveDelayMillis());
+        this.loadBatchWindowMillis = persistenceSettings.loadBatchWindowMillis();
         this.partyCache = Caffeine.newBuilder()
             .expireAfterAccess(Duration.ofMinutes(5))
             .buildAsync();
         this.profileResolver = profileResolver;
         this.injector = injector;
         this.messagingManager = messagingManager;
+        this.networkUsers = networkUsers;
         this.packetFactory = packetFactory;
         this.server = server;
-        this.cacheLock = new ReentrantLock();
-        this.cache = new HashMap<>();
+        this.metrics = metrics;
+        this.cache = new ConcurrentHashMap<>();
     }
 
     protected abstract CarbonPlayerCommon loadOrCreate(UUID uuid);
 
+    /**
+     * Load or create several players at once. The default implementation loads them one at a time,
+     * storage that can do better should override this along with {@link #loadBatchSize()}.
+     *
+     * @param uuids player ids
+     * @return players by id
+     */
+    protected Map<UUID, CarbonPlayerCommon> loadOrCreate(final Collection<UUID> uuids) {
+        final Map<UUID, CarbonPlayerCommon> players = new HashMap<>();
+        for (final UUID uuid : uuids) {
+            players.put(uuid, this.loadOrCreate(uuid));
+        }
+        return players;
+    }
+
+    /**
+     * The maximum number of players passed to {@link #loadOrCreate(Collection)} at once.
+     * Separate batches are loaded in parallel.
+     *
+     * @return batch size
+     */
+    protected int loadBatchSize() {
+        return 1;
+    }
+
     protected abstract void saveSync(CarbonPlayerCommon player);
 
     protected abstract @Nullable PartyImpl loadParty(UUID uuid);
@@ -109,11 +154,42 @@ public abstract class CachingUserManager implements UserManagerInternal<CarbonPl
     protected abstract void disbandSync(UUID id);
 
     private CompletableFuture<Void> save(final CarbonPlayerCommon player) {
-        return CompletableFuture.runAsync(() -> {
+        return this.persistence.runOrdered(player.uuid(), () -> {
+            final long start = System.nanoTime();
             this.saveSync(player);
-            player.saved();
-            this.messagingManager.get().queuePacketAndFlush(() -> this.packetFactory.saveCompletedPacket(player.uuid()));
-        }, this.executor);
+            this.metrics.record(CarbonMetrics.Stage.STORAGE_SAVE, start);
+            this.messagingManager.get().queuePacket(PacketLane.BULK, () -> this.packetFactory.saveCompletedPacket(player.uuid()));
+        }).whenComplete(($, thr) -> {
+            // failed saves restore their changes, retry those with the next dirty batch. Unless the player was
+            // unloaded meanwhile, then another server may have saved newer data which the retry would overwrite
+            if (player.needsSave() && this.cached(player)) {
+                this.dirty.put(player.uuid(), player);
+            }
+        });
+    }
+
+    private boolean cached(final CarbonPlayerCommon player) {
+        final @Nullable CompletableFuture<CarbonPlayerCommon> cached = this.cache.get(player.uuid());
+        return cached != null && cached.isDone() && !cached.isCompletedExceptionally() && cached.join() == player;
+    }
+
+    @Override
+    public void saveDirty() {
+        final int batch = Math.max(MIN_DIRTY_SAVE_BATCH, (this.dirty.size() + DIRTY_SAVE_SPREAD - 1) / DIRTY_SAVE_SPREAD);
+        int saved = 0;
+        for (final Iterator<CarbonPlayerCommon> iterator = this.dirty.values().iterator(); iterator.hasNext() && saved < batch;) {
+            final CarbonPlayerCommon player = iterator.next();
+            iterator.remove();
+            // the changed flag is set before listeners run, so a change racing with the removal is still seen here
+            if (player.needsSave()) {
+                this.saveIfNeeded(player).exceptionally(saveExceptionHandler(this.logger, player.username, player.uuid()));
+                saved++;
+            }
+        }
+    }
+
+    public SaveCoalescer pendingSaves() {
+        return this.pendingSaves;
     }
 
     @Override
@@ -123,16 +199,14 @@ public abstract class CachingUserManager implements UserManagerInternal<CarbonPl
 
     @Override
     public void saveCompleteMessageReceived(final UUID playerId) {
-        this.cacheLock.lock();
-        try {
-            this.cache.remove(playerId);
-        } finally {
-            this.cacheLock.unlock();
-        }
+        this.cache.remove(playerId);
+        this.dirty.remove(playerId);
     }
 
     @Override
     public CompletableFuture<Void> saveIfNeeded(final CarbonPlayerCommon player) {
+        // this save covers any buffered property changes
+        this.pendingSaves.cancel(player.uuid());
         if (!player.needsSave()) {
             return CompletableFuture.completedFuture(null);
         }
@@ -141,80 +215,168 @@ public abstract class CachingUserManager implements UserManagerInternal<CarbonPl
 
     @Override
     public CompletableFuture<CarbonPlayerCommon> user(final UUID uuid) {
-        this.cacheLock.lock();
-        try {
-            return this.cache.computeIfAbsent(uuid, $ -> {
-                final CompletableFuture<CarbonPlayerCommon> future = CompletableFuture.supplyAsync(() -> {
-                    final CarbonPlayerCommon player = this.loadOrCreate(uuid);
-                    this.injector.injectMembers(player);
-                    if (this instanceof DatabaseUserManager) {
-                        player.registerPropertyUpdateListener(() ->
-                            this.save(player).exceptionally(saveExceptionHandler(this.logger, player.username, uuid)));
+        final @Nullable CompletableFuture<CarbonPlayerCommon> cached = this.cache.get(uuid);
+        if (cached != null) {
+            return cached;
+        }
+
+        final CompletableFuture<CarbonPlayerCommon> future = this.cachedOrQueueLoad(uuid);
+        this.scheduleQueuedLoads();
+        return future;
+    }
+
+    @Override
+    public Map<UUID, CompletableFuture<CarbonPlayerCommon>> users(final Collection<UUID> uuids) {
+        final Map<UUID, CompletableFuture<CarbonPlayerCommon>> ret = new LinkedHashMap<>();
+        for (final UUID uuid : uuids) {
+            ret.put(uuid, this.cachedOrQueueLoad(uuid));
+        }
+        // the caller already gave us the whole batch
+        this.flushQueuedLoads();
+        return ret;
+    }
+
+    private CompletableFuture<CarbonPlayerCommon> cachedOrQueueLoad(final UUID uuid) {
+        final @Nullable CompletableFuture<CarbonPlayerCommon> cached = this.cache.get(uuid);
+        if (cached != null) {
+            return cached;
+        }
+
+        // Publish an incomplete future first so concurrent callers share a single load,
+        // and only queue the load once we know we won the race
+        final CompletableFuture<CarbonPlayerCommon> future = new CompletableFuture<>();
+        final @Nullable CompletableFuture<CarbonPlayerCommon> existing = this.cache.putIfAbsent(uuid, future);
+        if (existing != null) {
+            return existing;
+        }
+
+        this.attachPostLoad(uuid, future);
+        this.queuedLoads.put(uuid, future);
+        return future;
+    }
+
+    private void scheduleQueuedLoads() {
+        if (this.loadBatchWindowMillis <= 0) {
+            this.flushQueuedLoads();
+        } else if (this.loadFlushScheduled.compareAndSet(false, true)) {
+            CompletableFuture.delayedExecutor(this.loadBatchWindowMillis, TimeUnit.MILLISECONDS).execute(this::flushQueuedLoads);
+        }
+    }
+
+    private void flushQueuedLoads() {
+        this.loadFlushScheduled.set(false);
+
+        final Map<UUID, CompletableFuture<CarbonPlayerCommon>> batch = new HashMap<>();
+        for (final UUID uuid : List.copyOf(this.queuedLoads.keySet())) {
+            final @Nullable CompletableFuture<CarbonPlayerCommon> future = this.queuedLoads.remove(uuid);
+            if (future == null) {
+                continue; // taken by a concurrent flush
+            }
+            if (this.persistence.hasPendingWrites(uuid)) {
+                // load on its own after the pending writes (i.e. a logout save), so we don't read stale data
+                completeFrom(future, this.persistence.supplyLoad(uuid, () -> this.load(List.of(uuid)).get(uuid)));
+                continue;
+            }
+            batch.put(uuid, future);
+        }
+
+        for (final List<UUID> chunk : Lists.partition(List.copyOf(batch.keySet()), this.loadBatchSize())) {
+            this.persistence.supplyLoad(() -> this.load(chunk)).whenComplete((players, thr) -> {
+                for (final UUID uuid : chunk) {
+                    final CompletableFuture<CarbonPlayerCommon> future = batch.get(uuid);
+                    final @Nullable CarbonPlayerCommon player = players == null ? null : players.get(uuid);
+                    if (player != null) {
+                        future.complete(player);
+                    } else {
+                        future.completeExceptionally(thr != null ? thr : new IllegalStateException("Batch load did not return player " + uuid));
                     }
-                    return player;
-                }, this.executor);
-                this.attachPostLoad(uuid, future);
-                return future;
+                }
             });
-        } finally {
-            this.cacheLock.unlock();
         }
     }
 
+    private static <T> void completeFrom(final CompletableFuture<T> future, final CompletableFuture<T> source) {
+        source.whenComplete((result, thr) -> {
+            if (thr != null) {
+                future.completeExceptionally(thr);
+            } else {
+                future.complete(result);
+            }
+        });
+    }
+
+    private Map<UUID, CarbonPlayerCommon> load(final Collection<UUID> uuids) {
+        final long start = System.nanoTime();
+        final Map<UUID, CarbonPlayerCommon> players = this.loadOrCreate(uuids);
+        this.metrics.record(CarbonMetrics.Stage.STORAGE_LOAD, start);
+        for (final CarbonPlayerCommon player : players.values()) {
+            this.injector.injectMembers(player);
+            player.registerPropertyUpdateListener(() -> this.dirty.put(player.uuid(), player));
+            if (this instanceof DatabaseUserManager) {
+                player.registerPropertyUpdateListener(() -> this.pendingSaves.requestSave(player));
+            }
+        }
+        return players;
+    }
+
     @Override
     public void shutdown() {
-        this.cacheLock.lock();
         for (final Runnable task : this.queuedDisbands) {
             task.run();
         }
-        try {
-            final Map<UUID, CompletableFuture<Void>> collect = List.copyOf(this.cache.keySet()).stream()
-                .collect(Collectors.toMap(Function.identity(), this::loggedOut));
-            for (final Map.Entry<UUID, CompletableFuture<Void>> entry : collect.entrySet()) {
-                try {
-                    entry.getValue().join();
-                } catch (final Exception ex) {
-                    this.logger.warn("Exception saving data for player with uuid '{}'", entry.getKey(), ex);
-                }
+        final Map<UUID, CompletableFuture<Void>> collect = List.copyOf(this.cache.keySet()).stream()
+            .collect(Collectors.toMap(Function.identity(), this::loggedOut));
+        for (final Map.Entry<UUID, CompletableFuture<Void>> entry : collect.entrySet()) {
+            try {
+                entry.getValue().join();
+            } catch (final Exception ex) {
+                this.logger.warn("Exception saving data for player with uuid '{}'", entry.getKey(), ex);
+            }
+        }
+        // players unloaded without a logout, i.e. after another server saved them
+        this.pendingSaves.flushAll();
+        for (final CarbonPlayerCommon player : List.copyOf(this.dirty.values())) {
+            this.dirty.remove(player.uuid(), player);
+            try {
+                this.saveIfNeeded(player).join();
+            } catch (final Exception ex) {
+                this.logger.warn("Exception saving data for player with uuid '{}'", player.uuid(), ex);
             }
-            ConcurrentUtil.shutdownExecutor(this.executor, TimeUnit.MILLISECONDS, 500);
-        } finally {
-            this.cacheLock.unlock();
         }
+        this.logger.debug("Executed {} of {} requested property change saves", this.pendingSaves.executed(), this.pendingSaves.requested());
+        this.persistence.shutdown(TimeUnit.MILLISECONDS, 500);
     }
 
     @Override
     public CompletableFuture<Void> loggedOut(final UUID uuid) {
-        this.messagingManager.get().queuePacket(() -> this.packetFactory.removeLocalPlayerPacket(uuid));
-        this.cacheLock.lock();
-        try {
-            final @Nullable CompletableFuture<CarbonPlayerCommon> remove = this.cache.remove(uuid);
-            if (remove != null && remove.isDone()) { // don't need to save if it never finished loading
-                final @Nullable CarbonPlayerCommon join = remove.join();
-                if (join != null) {
-                    return this.saveIfNeeded(join);
-                }
+        this.networkUsers.get().localPlayerLeft(uuid);
+        final @Nullable CompletableFuture<CarbonPlayerCommon> remove = this.cache.remove(uuid);
+        // the logout save below covers any unsaved changes
+        this.dirty.remove(uuid);
+        if (remove != null && remove.isDone() && !remove.isCompletedExceptionally()) { // don't need to save if it never finished loading
+            final @Nullable CarbonPlayerCommon join = remove.join();
+            if (join != null) {
+                return this.saveIfNeeded(join);
             }
-            return CompletableFuture.completedFuture(null);
-        } finally {
-            this.cacheLock.unlock();
         }
+        return CompletableFuture.completedFuture(null);
     }
 
     @Override
     public void cleanup() {
-        this.cacheLock.lock();
-        try {
-            for (final Map.Entry<UUID, CompletableFuture<CarbonPlayerCommon>> entry : Map.copyOf(this.cache).entrySet()) {
-                final @Nullable CarbonPlayerCommon getNow = entry.getValue().getNow(null);
-                if (getNow == null || !getNow.transientLoadedNeedsUnload()) {
-                    continue;
-                }
-                this.cache.remove(entry.getKey());
+        for (final Map.Entry<UUID, CompletableFuture<CarbonPlayerCommon>> entry : this.cache.entrySet()) {
+            final CompletableFuture<CarbonPlayerCommon> future = entry.getValue();
+            if (!future.isDone() || future.isCompletedExceptionally()) {
+                continue;
+            }
+            final @Nullable CarbonPlayerCommon getNow = future.getNow(null);
+            if (getNow == null || !getNow.transientLoadedNeedsUnload()) {
+                continue;
+            }
+            // only unload the exact entry we inspected, a concurrent logout/reload may have replaced it
+            if (this.cache.remove(entry.getKey(), future)) {
                 this.saveIfNeeded(getNow).exceptionally(saveExceptionHandler(this.logger, getNow.username, getNow.uuid()));
             }
-        } finally {
-            this.cacheLock.unlock();
         }
     }
 
@@ -223,12 +385,7 @@ public abstract class CachingUserManager implements UserManagerInternal<CarbonPl
     private void attachPostLoad(final UUID uuid, final CompletableFuture<CarbonPlayerCommon> future) {
         future.whenComplete((result, thr) -> {
             if (result == null || thr != null) {
-                this.cacheLock.lock();
-                try {
-                    this.cache.remove(uuid);
-                } finally {
-                    this.cacheLock.unlock();
-                }
+                this.cache.remove(uuid, future);
             }
         });
     }
@@ -239,25 +396,27 @@ public abstract class CachingUserManager implements UserManagerInternal<CarbonPl
         if (this.recentDisbands.getIfPresent(id) != null) {
             return CompletableFuture.completedFuture(null);
         }
-        return this.partyCache.get(id, (uuid, cacheExecutor) -> CompletableFuture.supplyAsync(() -> {
+        return this.partyCache.get(id, (uuid, cacheExecutor) -> this.persistence.supplyLoad(uuid, () -> {
             final @Nullable PartyImpl party = this.loadParty(uuid);
             if (party != null) {
                 this.injector.injectMembers(party);
             }
             return party;
-        }, this.executor));
+        }));
     }
 
     @Override
     public CompletableFuture<Void> saveParty(final PartyImpl info) {
-        return CompletableFuture.runAsync(() -> {
+        return this.persistence.runOrdered(info.id(), () -> {
             final Map<UUID, PartyImpl.ChangeType> changes = info.pollChanges();
             if (changes.isEmpty()) {
                 return;
             }
+            final long start = System.nanoTime();
             this.saveSync(info, changes);
-            this.messagingManager.get().queuePacketAndFlush(() -> this.packetFactory.partyChange(info.id(), changes));
-        }, this.executor);
+            this.metrics.record(CarbonMetrics.Stage.STORAGE_SAVE, start);
+            this.messagingManager.get().queuePacket(PacketLane.LOW_LATENCY, () -> this.packetFactory.partyChange(info.id(), changes));
+        });
     }
 
     @Override
@@ -275,8 +434,8 @@ public abstract class CachingUserManager implements UserManagerInternal<CarbonPl
         this.queuedDisbands.add(task);
         this.recentDisbands.put(id, new Object());
         // delay deletion so other servers can post leave events
-        CompletableFuture.delayedExecutor(DISBAND_DELAY, TimeUnit.SECONDS, this.executor).execute(task);
-        this.messagingManager.get().queuePacketAndFlush(() -> this.packetFactory.disbandParty(id));
+        CompletableFuture.delayedExecutor(DISBAND_DELAY, TimeUnit.SECONDS, this.persistence.ordered(id)).execute(task);
+        this.messagingManager.get().queuePacket(PacketLane.LOW_LATENCY, () -> this.packetFactory.disbandParty(id));
     }
 
     @Override
@@ -25,10 +25,12 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 import net.draycia.carbon.api.channels.ChannelRegistry;
 import net.draycia.carbon.api.channels.ChatChannel;
@@ -60,6 +62,9 @@ public class CarbonPlayerCommon implements CarbonPlayer, ForwardingAudience.Sing
     private transient @MonotonicNonNull @Inject CarbonMessageRenderer messageRenderer;
     private transient @MonotonicNonNull @Inject UserManagerInternal<?> users;
     private volatile transient long transientLoadedSince = -1;
+    private volatile transient boolean persisted = false;
+    private final transient Map<UUID, PartyImpl.ChangeType> ignoreChanges = new ConcurrentHashMap<>();
+    private final transient Map<Key, PartyImpl.ChangeType> leftChannelChanges = new ConcurrentHashMap<>();
 
     protected final PersistentUserProperty<Boolean> muted;
     protected final PersistentUserProperty<Boolean> deafened;
@@ -148,6 +153,18 @@ public class CarbonPlayerCommon implements CarbonPlayer, ForwardingAudience.Sing
         return this.properties().anyMatch(PersistentUserProperty::changed);
     }
 
+    private Stream<PersistentUserProperty<?>> rowProperties() {
+        return Stream.of(
+            this.muted,
+            this.deafened,
+            this.selectedChannel,
+            this.displayName,
+            this.spying,
+            this.ignoringDirectMessages,
+            this.party
+        );
+    }
+
     private Stream<PersistentUserProperty<?>> properties() {
         return Stream.of(
             this.muted,
@@ -239,14 +256,13 @@ public class CarbonPlayerCommon implements CarbonPlayer, ForwardingAudience.Sing
 
     public void ignoring(final UUID player, final boolean nowIgnoring, final boolean internal) {
         final Set<UUID> newIgnored = new HashSet<>(this.ignoredPlayers.get());
-        if (nowIgnoring) {
-            newIgnored.add(player);
-        } else {
-            newIgnored.remove(player);
-        }
+        final boolean modified = nowIgnoring ? newIgnored.add(player) : newIgnored.remove(player);
         if (internal) {
             this.ignoredPlayers.internalSet(Collections.unmodifiableSet(newIgnored));
         } else {
+            if (modified) {
+                this.ignoreChanges.put(player, nowIgnoring ? PartyImpl.ChangeType.ADD : PartyImpl.ChangeType.REMOVE);
+            }
             this.ignoredPlayers.set(Collections.unmodifiableSet(newIgnored));
         }
     }
@@ -338,10 +354,13 @@ public class CarbonPlayerCommon implements CarbonPlayer, ForwardingAudience.Sing
 
     public void joinChannel(final Key key, final boolean internal) {
         final Set<Key> newKeys = new HashSet<>(this.leftChannels.get());
-        newKeys.remove(key);
+        final boolean modified = newKeys.remove(key);
         if (internal) {
             this.leftChannels.internalSet(Collections.unmodifiableSet(newKeys));
         } else {
+            if (modified) {
+                this.leftChannelChanges.put(key, PartyImpl.ChangeType.REMOVE);
+            }
             this.leftChannels.set(Collections.unmodifiableSet(newKeys));
         }
     }
@@ -353,10 +372,13 @@ public class CarbonPlayerCommon implements CarbonPlayer, ForwardingAudience.Sing
 
     public void leaveChannel(final ChatChannel channel, final boolean internal) {
         final Set<Key> newKeys = new HashSet<>(this.leftChannels.get());
-        newKeys.add(channel.key());
+        final boolean modified = newKeys.add(channel.key());
         if (internal) {
             this.leftChannels.internalSet(Collections.unmodifiableSet(newKeys));
         } else {
+            if (modified) {
+                this.leftChannelChanges.put(channel.key(), PartyImpl.ChangeType.ADD);
+            }
             this.leftChannels.set(Collections.unmodifiableSet(newKeys));
         }
     }
@@ -482,8 +504,54 @@ public class CarbonPlayerCommon implements CarbonPlayer, ForwardingAudience.Sing
         return this.uuid.hashCode();
     }
 
-    public void saved() {
-        this.properties().forEach(PersistentUserProperty::saved);
+    /**
+     * Mark this player as present in storage, so the next save does not need to write
+     * unchanged properties.
+     */
+    public void markPersisted() {
+        this.persisted = true;
+    }
+
+    /**
+     * Takes the changes made since the last poll, clearing the changed flags so that
+     * changes made while a save is in progress are picked up by the next one.
+     *
+     * @return polled changes
+     */
+    public PendingChanges pollChanges() {
+        boolean row = !this.persisted;
+        for (final PersistentUserProperty<?> property : this.rowProperties().toList()) {
+            row = property.pollChanged() || row;
+        }
+        this.ignoredPlayers.pollChanged();
+        this.leftChannels.pollChanged();
+        this.persisted = true;
+        return new PendingChanges(row, poll(this.ignoreChanges), poll(this.leftChannelChanges));
+    }
+
+    /**
+     * Puts back changes from a failed save, unless they were superseded in the meantime.
+     *
+     * @param changes changes returned from {@link #pollChanges()}
+     */
+    public void restoreChanges(final PendingChanges changes) {
+        if (changes.row()) {
+            this.rowProperties().forEach(PersistentUserProperty::markChanged);
+        }
+        if (!changes.ignores().isEmpty()) {
+            changes.ignores().forEach(this.ignoreChanges::putIfAbsent);
+            this.ignoredPlayers.markChanged();
+        }
+        if (!changes.leftChannels().isEmpty()) {
+            changes.leftChannels().forEach(this.leftChannelChanges::putIfAbsent);
+            this.leftChannels.markChanged();
+        }
+    }
+
+    private static <K> Map<K, PartyImpl.ChangeType> poll(final Map<K, PartyImpl.ChangeType> changes) {
+        final Map<K, PartyImpl.ChangeType> ret = Map.copyOf(changes);
+        ret.forEach(changes::remove);
+        return ret;
     }
 
     public @Nullable UUID partyId() {
@@ -503,4 +571,11 @@ public class CarbonPlayerCommon implements CarbonPlayer, ForwardingAudience.Sing
         this.party.set(party == null ? null : party.id());
     }
 
+    public record PendingChanges(
+        boolean row,
+        Map<UUID, PartyImpl.ChangeType> ignores,
+        Map<Key, PartyImpl.ChangeType> leftChannels
+    ) {
+    }
+
 }
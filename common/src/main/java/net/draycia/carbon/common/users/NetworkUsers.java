@@ -20,25 +20,37 @@
 package net.draycia.carbon.common.users;
 
 import com.google.inject.Inject;
+import com.google.inject.Provider;
 import com.google.inject.Singleton;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
-import java.util.stream.Stream;
 import net.draycia.carbon.api.CarbonServer;
 import net.draycia.carbon.api.users.CarbonPlayer;
-import net.draycia.carbon.api.users.UserManager;
 import net.draycia.carbon.common.command.Commander;
 import net.draycia.carbon.common.command.PlayerCommander;
 import net.draycia.carbon.common.command.argument.PlayerSuggestions;
+import net.draycia.carbon.common.messaging.MessagingManager;
+import net.draycia.carbon.common.messaging.PacketLane;
+import net.draycia.carbon.common.messaging.ServerId;
 import net.draycia.carbon.common.messaging.packets.LocalPlayerChangePacket;
+import net.draycia.carbon.common.messaging.packets.LocalPlayersDigestPacket;
 import net.draycia.carbon.common.messaging.packets.LocalPlayersPacket;
-import net.draycia.carbon.common.util.Exceptions;
+import net.draycia.carbon.common.messaging.packets.LocalPlayersRequestPacket;
+import net.draycia.carbon.common.messaging.packets.PacketFactory;
+import net.draycia.carbon.common.messaging.packets.SequencedLocalPlayerChangePacket;
+import net.draycia.carbon.common.messaging.packets.SequencedLocalPlayersPacket;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.framework.qual.DefaultQualifier;
@@ -50,109 +62,380 @@ import org.incendo.cloud.suggestion.Suggestion;
  * Eventually consistent store of who is on each server in the network (besides self).
  *
  * <p>Currently used for username suggestions and whispers.</p>
+ *
+ * <p>Every server numbers the changes to its own player list. Receivers apply changes in
+ * sequence, and request a full list from the origin server when they notice a gap, or when the
+ * periodic {@link LocalPlayersDigestPacket} doesn't match what they have.</p>
+ *
+ * <p>While any server on the network is older than {@link MessagingManager#SEQUENCED_PLAYER_LISTS_VERSION},
+ * changes are sent as the unnumbered {@link LocalPlayerChangePacket} and {@link LocalPlayersPacket} it
+ * understands, and no digests are sent. Unnumbered packets are applied as they arrive.</p>
  */
 @DefaultQualifier(NonNull.class)
 @Singleton
 public final class NetworkUsers implements PlayerSuggestions {
 
+    private static final long RESYNC_COOLDOWN = TimeUnit.SECONDS.toNanos(5);
+
     private final CarbonServer server;
-    private final Map<UUID, Map<UUID, String>> map = new ConcurrentHashMap<>();
-    private final UserManager<? extends CarbonPlayer> userManager;
+    private final UUID serverId;
+    private final UserManagerInternal<? extends CarbonPlayer> userManager;
     private final ProfileCache profileCache;
+    private final Provider<MessagingManager> messaging;
+    private final PacketFactory packetFactory;
+
+    // what we announced about ourselves, guarded by this.local
+    private final Map<UUID, String> local = new HashMap<>();
+    private long localSequence;
+    private long localChecksum;
+    private final NavigableMap<String, UUID> localByName = new ConcurrentSkipListMap<>();
+
+    // what other servers announced, each guarded by itself
+    private final Map<UUID, RemoteServer> servers = new ConcurrentHashMap<>();
+    private final Map<UUID, UUID> serverByPlayer = new ConcurrentHashMap<>();
+    private final Map<UUID, String> nameByPlayer = new ConcurrentHashMap<>();
+    private final NavigableMap<String, UUID> playerByName = new ConcurrentSkipListMap<>();
 
     @Inject
     private NetworkUsers(
         final CarbonServer server,
-        final UserManager<?> userManager,
-        final ProfileCache profileCache
+        final @ServerId UUID serverId,
+        final UserManagerInternal<?> userManager,
+        final ProfileCache profileCache,
+        final Provider<MessagingManager> messaging,
+        final PacketFactory packetFactory
     ) {
         this.server = server;
+        this.serverId = serverId;
         this.userManager = userManager;
         this.profileCache = profileCache;
+        this.messaging = messaging;
+        this.packetFactory = packetFactory;
+    }
+
+    // Local changes
+
+    public void localPlayerJoined(final UUID id, final String name) {
+        synchronized (this.local) {
+            final @Nullable String previous = this.local.put(id, name);
+            if (previous != null) {
+                this.localChecksum -= entryHash(id, previous);
+                this.localByName.remove(previous.toLowerCase(Locale.ROOT), id);
+            }
+            this.localChecksum += entryHash(id, name);
+            this.localByName.put(name.toLowerCase(Locale.ROOT), id);
+            final long sequence = ++this.localSequence;
+            this.queueChange(id, name, LocalPlayerChangePacket.ChangeType.ADD, sequence);
+        }
+    }
+
+    public void localPlayerLeft(final UUID id) {
+        synchronized (this.local) {
+            final @Nullable String previous = this.local.remove(id);
+            if (previous != null) {
+                this.localChecksum -= entryHash(id, previous);
+                this.localByName.remove(previous.toLowerCase(Locale.ROOT), id);
+            }
+            final long sequence = ++this.localSequence;
+            this.queueChange(id, null, LocalPlayerChangePacket.ChangeType.REMOVE, sequence);
+        }
     }
 
+    /**
+     * Re-reads the players on this server from the platform without broadcasting anything, so players
+     * who were online before enable show up in suggestions.
+     */
+    public void indexLocalPlayers() {
+        synchronized (this.local) {
+            this.local.clear();
+            this.localByName.clear();
+            this.localChecksum = 0;
+            for (final CarbonPlayer player : this.server.players()) {
+                this.local.put(player.uuid(), player.username());
+                this.localByName.put(player.username().toLowerCase(Locale.ROOT), player.uuid());
+                this.localChecksum += entryHash(player.uuid(), player.username());
+            }
+        }
+    }
+
+    /**
+     * Broadcasts the full list of players on this server, re-reading it from the platform first.
+     */
+    public void announceLocalPlayers() {
+        synchronized (this.local) {
+            this.indexLocalPlayers();
+            this.queueLocalPlayers();
+        }
+    }
+
+    public void clearLocalPlayers() {
+        synchronized (this.local) {
+            this.local.clear();
+            this.localByName.clear();
+            this.localChecksum = 0;
+            this.queueLocalPlayers();
+        }
+    }
+
+    public void sendDigest() {
+        if (!this.sequenced()) {
+            return;
+        }
+        synchronized (this.local) {
+            final long sequence = this.localSequence;
+            final long checksum = this.localChecksum;
+            this.messaging.get().queuePacket(PacketLane.BULK, () -> this.packetFactory.localPlayersDigest(sequence, checksum));
+        }
+    }
+
+    private void queueLocalPlayers() {
+        final Map<UUID, String> players = Map.copyOf(this.local);
+        final long sequence = ++this.localSequence;
+        this.messaging.get().queuePacket(PacketLane.BULK, () -> this.sequenced()
+            ? this.packetFactory.sequencedLocalPlayersPacket(players, sequence)
+            : this.packetFactory.localPlayersPacket(players));
+    }
+
+    private void queueChange(final UUID id, final @Nullable String name, final LocalPlayerChangePacket.ChangeType type, final long sequence) {
+        this.messaging.get().queuePacket(PacketLane.BULK, () -> this.sequenced()
+            ? this.packetFactory.sequencedLocalPlayerChangePacket(id, name, type, sequence)
+            : this.packetFactory.localPlayerChangePacket(id, name, type));
+    }
+
+    private boolean sequenced() {
+        return this.messaging.get().peersSupport(MessagingManager.SEQUENCED_PLAYER_LISTS_VERSION);
+    }
+
+    // Remote changes
+
+    // unnumbered, from servers older than protocol version 2 or while one is on the network
     public void handlePacket(final LocalPlayerChangePacket packet) {
-        final Map<UUID, String> serverMap = this.map.computeIfAbsent(packet.getSender(), $ -> new ConcurrentHashMap<>());
+        final RemoteServer remote = this.servers.computeIfAbsent(packet.getSender(), RemoteServer::new);
+
+        synchronized (remote) {
+            this.applyChange(remote, packet.playerId(), packet.playerName(), packet.changeType());
+        }
+    }
+
+    public void handlePacket(final LocalPlayersPacket packet) {
+        final RemoteServer remote = this.servers.computeIfAbsent(packet.getSender(), RemoteServer::new);
+
+        synchronized (remote) {
+            this.replacePlayers(remote, packet.players());
+        }
+
+        packet.players().forEach(this.profileCache::cache);
+    }
+
+    public void handlePacket(final SequencedLocalPlayerChangePacket packet) {
+        final RemoteServer remote = this.servers.computeIfAbsent(packet.getSender(), RemoteServer::new);
+        final boolean gap;
+
+        synchronized (remote) {
+            if (packet.sequence() <= remote.sequence) {
+                return;
+            }
+            gap = packet.sequence() != remote.sequence + 1;
+            remote.sequence = packet.sequence();
+
+            this.applyChange(remote, packet.playerId(), packet.playerName(), packet.changeType());
+        }
+
+        if (gap) {
+            this.requestResync(remote);
+        }
+    }
+
+    public void handlePacket(final SequencedLocalPlayersPacket packet) {
+        final RemoteServer remote = this.servers.computeIfAbsent(packet.getSender(), RemoteServer::new);
 
-        switch (packet.changeType()) {
+        synchronized (remote) {
+            if (packet.sequence() <= remote.sequence) {
+                return;
+            }
+            remote.sequence = packet.sequence();
+
+            this.replacePlayers(remote, packet.players());
+        }
+
+        packet.players().forEach(this.profileCache::cache);
+    }
+
+    public void handlePacket(final LocalPlayersDigestPacket packet) {
+        final RemoteServer remote = this.servers.computeIfAbsent(packet.getSender(), RemoteServer::new);
+        final boolean matches;
+
+        synchronized (remote) {
+            matches = remote.sequence == packet.sequence() && remote.checksum == packet.checksum();
+        }
+
+        if (!matches) {
+            this.requestResync(remote);
+        }
+    }
+
+    public void handlePacket(final LocalPlayersRequestPacket packet) {
+        if (packet.target().equals(this.serverId)) {
+            synchronized (this.local) {
+                this.queueLocalPlayers();
+            }
+        }
+    }
+
+    /**
+     * Forgets everything known about a server, i.e. after it restarted or shut down.
+     *
+     * @param serverId server id
+     */
+    public void forgetServer(final UUID serverId) {
+        final @Nullable RemoteServer remote = this.servers.remove(serverId);
+        if (remote == null) {
+            return;
+        }
+        synchronized (remote) {
+            for (final UUID id : List.copyOf(remote.players.keySet())) {
+                this.remove(remote, id);
+            }
+        }
+    }
+
+    private void requestResync(final RemoteServer remote) {
+        final long now = System.nanoTime();
+        synchronized (remote) {
+            if (remote.lastResyncRequest != 0 && now - remote.lastResyncRequest < RESYNC_COOLDOWN) {
+                return;
+            }
+            remote.lastResyncRequest = now;
+        }
+        this.messaging.get().queuePacket(PacketLane.BULK, () -> this.packetFactory.localPlayersRequest(remote.id));
+    }
+
+    private void applyChange(final RemoteServer remote, final UUID id, final @Nullable String name, final LocalPlayerChangePacket.ChangeType type) {
+        switch (type) {
             case ADD -> {
-                serverMap.put(packet.playerId(), packet.playerName());
-                this.profileCache.cache(packet.playerId(), packet.playerName());
+                this.add(remote, id, Objects.requireNonNull(name));
+                this.profileCache.cache(id, name);
             }
-            case REMOVE -> serverMap.remove(packet.playerId());
+            case REMOVE -> this.remove(remote, id);
         }
+    }
 
-        this.map.values().removeIf(Map::isEmpty);
+    private void replacePlayers(final RemoteServer remote, final Map<UUID, String> players) {
+        for (final UUID id : List.copyOf(remote.players.keySet())) {
+            if (!players.containsKey(id)) {
+                this.remove(remote, id);
+            }
+        }
+        players.forEach((id, name) -> this.add(remote, id, name));
     }
 
-    public void handlePacket(final LocalPlayersPacket packet) {
-        if (packet.players().isEmpty()) {
-            this.map.remove(packet.getSender());
-        } else {
-            final Map<UUID, String> serverMap = this.map.computeIfAbsent(packet.getSender(), $ -> new ConcurrentHashMap<>());
-            serverMap.clear();
-            serverMap.putAll(packet.players());
+    private void add(final RemoteServer remote, final UUID id, final String name) {
+        final @Nullable String previous = remote.players.put(id, name);
+        if (previous != null) {
+            remote.checksum -= entryHash(id, previous);
+            this.playerByName.remove(previous.toLowerCase(Locale.ROOT), id);
+        }
+        remote.checksum += entryHash(id, name);
+        this.serverByPlayer.put(id, remote.id);
+        this.nameByPlayer.put(id, name);
+        this.playerByName.put(name.toLowerCase(Locale.ROOT), id);
+    }
 
-            packet.players().forEach(this.profileCache::cache);
+    private void remove(final RemoteServer remote, final UUID id) {
+        final @Nullable String previous = remote.players.remove(id);
+        if (previous == null) {
+            return;
+        }
+        remote.checksum -= entryHash(id, previous);
+        // the player may already have joined another server
+        if (this.serverByPlayer.remove(id, remote.id)) {
+            this.nameByPlayer.remove(id);
+            this.playerByName.remove(previous.toLowerCase(Locale.ROOT), id);
         }
     }
 
+    // order independent, so both sides can maintain it incrementally
+    private static long entryHash(final UUID id, final String name) {
+        long hash = id.getMostSignificantBits() * 31 + id.getLeastSignificantBits();
+        hash = hash * 31 + name.hashCode();
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
     // PlayerSuggestions impl
     @Override
     public CompletableFuture<Iterable<Suggestion>> suggestionsFuture(final CommandContext<Commander> ctx, final CommandInput input) {
-        final Commander commander = ctx.sender();
-
-        final List<? extends CarbonPlayer> local = this.server.players();
-
-        if (!(commander instanceof PlayerCommander player)) {
-            return CompletableFuture.completedFuture(
-                Stream.concat(local.stream().map(CarbonPlayer::username), this.map.values().stream().flatMap(m -> m.values().stream()))
-                    .distinct()
-                    .map(Suggestion::suggestion)
-                    .toList()
-            );
-        }
-        final CarbonPlayer carbonPlayer = player.carbonPlayer();
-
-        final List<? extends CompletableFuture<? extends CarbonPlayer>> remotePlayerFutures =
-            this.map.values().stream()
-                .flatMap(m -> m.keySet().stream())
-                .map(this.userManager::user)
-                .toList(); // collect to ensure we request all futures before waiting
-        final CompletableFuture<Void> combinedFuture = CompletableFuture.allOf(remotePlayerFutures.toArray(CompletableFuture[]::new));
-        try {
-            combinedFuture.get(50, TimeUnit.MILLISECONDS);
-        } catch (final TimeoutException ignore) {
-        } catch (final Exception e) {
-            throw Exceptions.rethrow(e);
-        }
-        final Stream<? extends CarbonPlayer> remote = remotePlayerFutures.stream()
-            .map(future -> future.getNow(null))
-            .filter(Objects::nonNull);
-
-        return CompletableFuture.completedFuture(
-            Stream.concat(local.stream(), remote)
-                .filter(carbonPlayer::awareOf)
-                .map(CarbonPlayer::username)
-                .distinct()
-                .map(Suggestion::suggestion)
-                .toList()
-        );
+        final @Nullable CarbonPlayer viewer = ctx.sender() instanceof PlayerCommander player ? player.carbonPlayer() : null;
+        final String prefix = input.peekString().toLowerCase(Locale.ROOT);
+
+        final Set<String> names = new LinkedHashSet<>();
+        for (final UUID id : this.localByName.subMap(prefix, prefix + Character.MAX_VALUE).values()) {
+            final @Nullable CarbonPlayer local = this.userManager.onlineUser(id);
+            if (local != null && (viewer == null || viewer.awareOf(local))) {
+                names.add(local.username());
+            }
+        }
+
+        // remote players have no platform player here, so they can never be vanished from our point of view
+        for (final UUID remote : this.playerByName.subMap(prefix, prefix + Character.MAX_VALUE).values()) {
+            final @Nullable String name = this.nameByPlayer.get(remote);
+            if (name != null) {
+                names.add(name);
+            }
+        }
+
+        final List<Suggestion> suggestions = new ArrayList<>(names.size());
+        for (final String name : names) {
+            suggestions.add(Suggestion.suggestion(name));
+        }
+        return CompletableFuture.completedFuture(suggestions);
     }
 
     public boolean online(final CarbonPlayer player) {
         if (player.online()) {
             return true;
         }
-        return this.map.values().stream().anyMatch(server -> server.containsKey(player.uuid()));
+        return this.serverByPlayer.containsKey(player.uuid());
     }
 
     public boolean online(final UUID uuid) {
-        final @Nullable CarbonPlayer player = this.server.players().stream()
-            .filter(it -> it.uuid().equals(uuid))
-            .findFirst()
-            .orElse(null);
-        return player != null || this.map.values().stream().anyMatch(server -> server.containsKey(uuid));
+        return this.userManager.onlineUser(uuid) != null || this.serverByPlayer.containsKey(uuid);
+    }
+
+    /**
+     * Gets the server a remote player is on.
+     *
+     * @param uuid player id
+     * @return the server id, or {@code null} if the player is not on another server
+     */
+    public @Nullable UUID server(final UUID uuid) {
+        return this.serverByPlayer.get(uuid);
+    }
+
+    /**
+     * Looks up a player on another server by name, ignoring case.
+     *
+     * @param name username
+     * @return the player id, or {@code null} if no such player is on another server
+     */
+    public @Nullable UUID remotePlayer(final String name) {
+        return this.playerByName.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    private static final class RemoteServer {
+
+        private final UUID id;
+        private final Map<UUID, String> players = new HashMap<>();
+        private long sequence;
+        private long checksum;
+        private long lastResyncRequest;
+
+        RemoteServer(final UUID id) {
+            this.id = id;
+        }
+
     }
 
 }
@@ -0,0 +1,102 @@
+/*
+ * CarbonChat
+ *
+ * Copyright (c) 2024 Josua Parks (Vicarious)
+ *                    Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.draycia.carbon.common.users;
+
+import com.google.inject.Singleton;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+/**
+ * Index of the online members of each party, so party chat never has to load parties or scan
+ * every online player.
+ *
+ * <p>Kept current by {@link PlatformUserManager} as players come and go, and by {@link PartyImpl}
+ * as members are added and removed. Reads don't lock.</p>
+ */
+@Singleton
+@DefaultQualifier(NonNull.class)
+public final class OnlinePartyMembers {
+
+    private final Set<UUID> online = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, UUID> partyByPlayer = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<UUID>> membersByParty = new ConcurrentHashMap<>();
+
+    public synchronized void playerOnline(final UUID player, final @Nullable UUID party) {
+        this.online.add(player);
+        this.link(player, party);
+    }
+
+    public synchronized void playerOffline(final UUID player) {
+        this.online.remove(player);
+        this.link(player, null);
+    }
+
+    public synchronized void memberAdded(final UUID party, final UUID player) {
+        if (this.online.contains(player)) {
+            this.link(player, party);
+        }
+    }
+
+    public synchronized void memberRemoved(final UUID party, final UUID player) {
+        if (Objects.equals(this.partyByPlayer.get(player), party)) {
+            this.link(player, null);
+        }
+    }
+
+    public synchronized void partyDisbanded(final UUID party) {
+        final @Nullable Set<UUID> members = this.membersByParty.remove(party);
+        if (members != null) {
+            members.forEach(member -> this.partyByPlayer.remove(member, party));
+        }
+    }
+
+    /**
+     * Gets the online members of a party.
+     *
+     * @param party party id
+     * @return live view of the online members
+     */
+    public Set<UUID> onlineMembers(final UUID party) {
+        return this.membersByParty.getOrDefault(party, Set.of());
+    }
+
+    private void link(final UUID player, final @Nullable UUID party) {
+        final @Nullable UUID previous = party == null ? this.partyByPlayer.remove(player) : this.partyByPlayer.put(player, party);
+        if (Objects.equals(previous, party)) {
+            return;
+        }
+        if (previous != null) {
+            this.membersByParty.computeIfPresent(previous, ($, members) -> {
+                members.remove(player);
+                return members.isEmpty() ? null : members;
+            });
+        }
+        if (party != null) {
+            this.membersByParty.computeIfAbsent(party, $ -> ConcurrentHashMap.newKeySet()).add(player);
+        }
+    }
+
+}
@@ -57,6 +57,7 @@ public final class PartyImpl implements Party {
     private transient @MonotonicNonNull @Inject Logger logger;
     private transient @MonotonicNonNull @Inject CarbonEventHandler events;
     private transient @MonotonicNonNull @Inject CarbonMessages messages;
+    private transient @MonotonicNonNull @Inject OnlinePartyMembers onlineMembers;
     private transient volatile boolean disbanded = false;
 
     private PartyImpl(
@@ -160,6 +161,7 @@ public final class PartyImpl implements Party {
 
     public void disbandRaw() {
         this.disbanded = true;
+        this.onlineMembers.partyDisbanded(this.id);
         this.server.players().stream().filter(p -> this.members.contains(p.uuid())).forEach(p -> ((WrappedCarbonPlayer) p).party(null));
         for (final UUID member : this.members) {
             this.emitLeaveEvent(member);
@@ -172,6 +174,7 @@ public final class PartyImpl implements Party {
 
     public void addMemberRaw(final UUID id) {
         this.members.add(id);
+        this.onlineMembers.memberAdded(this.id, id);
 
         this.events.emit(new PartyJoinEvent() {
 
@@ -191,6 +194,7 @@ public final class PartyImpl implements Party {
 
     public void removeMemberRaw(final UUID id) {
         this.members.remove(id);
+        this.onlineMembers.memberRemoved(this.id, id);
 
         this.emitLeaveEvent(id);
 
@@ -34,6 +34,7 @@ import net.draycia.carbon.api.users.Party;
 import net.draycia.carbon.common.config.ConfigManager;
 import net.draycia.carbon.common.messages.CarbonMessages;
 import net.draycia.carbon.common.messaging.MessagingManager;
+import net.draycia.carbon.common.messaging.PacketLane;
 import net.draycia.carbon.common.messaging.packets.InvalidatePartyInvitePacket;
 import net.draycia.carbon.common.messaging.packets.PacketFactory;
 import net.draycia.carbon.common.messaging.packets.PartyInvitePacket;
@@ -76,13 +77,13 @@ public final class PartyInvites {
         cache.put(from, party);
         this.clean();
 
-        this.messaging.get().queuePacket(() -> this.packetFactory.partyInvite(from, to, party));
+        this.messaging.get().queuePacket(PacketLane.LOW_LATENCY, () -> this.packetFactory.partyInvite(from, to, party));
     }
 
     public void invalidateInvite(final UUID from, final UUID to) {
         this.invalidateInvite_(from, to);
 
-        this.messaging.get().queuePacket(() -> this.packetFactory.invalidatePartyInvite(from, to));
+        this.messaging.get().queuePacket(PacketLane.LOW_LATENCY, () -> this.packetFactory.invalidatePartyInvite(from, to));
     }
 
     private void invalidateInvite_(final UUID from, final UUID to) {
@@ -0,0 +1,163 @@
+/*
+ * CarbonChat
+ *
+ * Copyright (c) 2024 Josua Parks (Vicarious)
+ *                    Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.draycia.carbon.common.users;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import net.draycia.carbon.common.config.PersistenceSettings;
+import net.draycia.carbon.common.util.ConcurrentUtil;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+/**
+ * Schedules storage work for a {@link CachingUserManager}.
+ *
+ * <p>Player loads run on their own pool so joins are never queued behind unrelated saves.
+ * Everything else runs on a bounded worker pool, where work submitted with the same key
+ * (player or party id) is executed in submission order.</p>
+ */
+@DefaultQualifier(NonNull.class)
+public final class PersistenceExecutor {
+
+    private final Logger logger;
+    private final ExecutorService loads;
+    private final ExecutorService workers;
+    private final Map<UUID, CompletableFuture<?>> tails = new ConcurrentHashMap<>();
+
+    public PersistenceExecutor(final Logger logger, final String name, final PersistenceSettings settings) {
+        this.logger = logger;
+        this.loads = Executors.newFixedThreadPool(
+            settings.loadThreads(),
+            ConcurrentUtil.carbonThreadFactory(logger, name + " Load")
+        );
+        this.workers = Executors.newFixedThreadPool(
+            settings.saveThreads(),
+            ConcurrentUtil.carbonThreadFactory(logger, name + " Save")
+        );
+    }
+
+    /**
+     * Executor which runs every task in order with other work for {@code key}.
+     *
+     * @param key ordering key
+     * @return ordered executor
+     */
+    public Executor ordered(final UUID key) {
+        return task -> this.runOrdered(key, task).whenComplete(($, thr) -> {
+            if (thr != null) {
+                this.logger.warn("Exception executing persistence task for {}", key, thr);
+            }
+        });
+    }
+
+    /**
+     * Load data on the load pool. If writes for {@code key} are still pending
+     * (e.g. a player rejoined before their logout save finished), the load waits for them.
+     *
+     * @param key  key
+     * @param task load task
+     * @param <T>  result type
+     * @return load future
+     */
+    public <T> CompletableFuture<T> supplyLoad(final UUID key, final Supplier<T> task) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        final Runnable run = completing(future, task);
+        final @Nullable CompletableFuture<?> pendingWrite = this.tails.get(key);
+        if (pendingWrite == null) {
+            this.execute(this.loads, run, future);
+        } else {
+            pendingWrite.whenComplete(($, $$) -> this.execute(this.loads, run, future));
+        }
+        return future;
+    }
+
+    /**
+     * Load data on the load pool, without waiting for pending writes.
+     *
+     * @param task load task
+     * @param <T>  result type
+     * @return load future
+     * @see #hasPendingWrites(UUID)
+     */
+    public <T> CompletableFuture<T> supplyLoad(final Supplier<T> task) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        this.execute(this.loads, completing(future, task), future);
+        return future;
+    }
+
+    public boolean hasPendingWrites(final UUID key) {
+        return this.tails.containsKey(key);
+    }
+
+    public CompletableFuture<Void> runOrdered(final UUID key, final Runnable task) {
+        return this.supplyOrdered(key, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    public <T> CompletableFuture<T> supplyOrdered(final UUID key, final Supplier<T> task) {
+        final CompletableFuture<T> next = new CompletableFuture<>();
+        final @Nullable CompletableFuture<?> previous = this.tails.put(key, next);
+        final Runnable run = completing(next, task);
+        if (previous == null) {
+            this.execute(this.workers, run, next);
+        } else {
+            // the next task runs regardless of whether the previous one failed
+            previous.whenComplete(($, $$) -> this.execute(this.workers, run, next));
+        }
+        next.whenComplete(($, $$) -> this.tails.remove(key, next));
+        return next;
+    }
+
+    private static <T> Runnable completing(final CompletableFuture<T> future, final Supplier<T> task) {
+        return () -> {
+            try {
+                future.complete(task.get());
+            } catch (final Throwable thr) {
+                future.completeExceptionally(thr);
+            }
+        };
+    }
+
+    private void execute(final Executor executor, final Runnable run, final CompletableFuture<?> future) {
+        try {
+            executor.execute(run);
+        } catch (final RejectedExecutionException ex) {
+            future.completeExceptionally(ex);
+        }
+    }
+
+    public void shutdown(final TimeUnit timeoutUnit, final long timeoutLength) {
+        ConcurrentUtil.shutdownExecutor(this.loads, timeoutUnit, timeoutLength);
+        ConcurrentUtil.shutdownExecutor(this.workers, timeoutUnit, timeoutLength);
+    }
+
+}
@@ -22,11 +22,18 @@ package net.draycia.carbon.common.users;
 import com.google.inject.Inject;
 import com.google.inject.Injector;
 import com.google.inject.Module;
+import com.google.inject.Provider;
 import com.google.inject.Singleton;
 import com.google.inject.assistedinject.FactoryModuleBuilder;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import net.draycia.carbon.api.users.Party;
+import net.draycia.carbon.common.channels.CarbonChannelRegistry;
 import net.draycia.carbon.common.messaging.packets.DisbandPartyPacket;
 import net.draycia.carbon.common.messaging.packets.PartyChangePacket;
 import net.kyori.adventure.text.Component;
@@ -41,25 +48,71 @@ public final class PlatformUserManager implements UserManagerInternal<WrappedCar
     private final UserManagerInternal<CarbonPlayerCommon> backingManager;
     private final PlayerFactory playerFactory;
     private final Injector injector;
+    private final Provider<CarbonChannelRegistry> channelRegistry;
+    private final OnlinePartyMembers partyMembers;
+    // online players who finished loading, kept current by wrap and loggedOut
+    private final Map<UUID, OnlinePlayer> onlinePlayers = new ConcurrentHashMap<>();
+    // orders loads, so one started before a reload can't replace the reloaded player when it completes late
+    private final AtomicLong loads = new AtomicLong();
 
     @Inject
     private PlatformUserManager(
         final @Backing UserManagerInternal<CarbonPlayerCommon> backingManager,
         final PlayerFactory playerFactory,
-        final Injector injector
+        final Injector injector,
+        final Provider<CarbonChannelRegistry> channelRegistry,
+        final OnlinePartyMembers partyMembers
     ) {
         this.backingManager = backingManager;
         this.playerFactory = playerFactory;
         this.injector = injector;
+        this.channelRegistry = channelRegistry;
+        this.partyMembers = partyMembers;
     }
 
     @Override
     public CompletableFuture<WrappedCarbonPlayer> user(final UUID uuid) {
-        return this.backingManager.user(uuid).thenApply(common -> {
-            final WrappedCarbonPlayer wrapped = this.playerFactory.wrap(common);
-            common.markTransientLoaded(!wrapped.online());
+        final long load = this.loads.incrementAndGet();
+        return this.backingManager.user(uuid).thenApply(common -> this.wrap(common, load));
+    }
+
+    @Override
+    public Map<UUID, CompletableFuture<WrappedCarbonPlayer>> users(final Collection<UUID> uuids) {
+        final Map<UUID, CompletableFuture<WrappedCarbonPlayer>> ret = new LinkedHashMap<>();
+        final long load = this.loads.incrementAndGet();
+        this.backingManager.users(uuids).forEach((id, future) -> ret.put(id, future.thenApply(common -> this.wrap(common, load))));
+        return ret;
+    }
+
+    private WrappedCarbonPlayer wrap(final CarbonPlayerCommon common, final long load) {
+        final WrappedCarbonPlayer wrapped = this.playerFactory.wrap(common);
+        final boolean online = wrapped.online();
+        common.markTransientLoaded(!online);
+        if (!online) {
             return wrapped;
+        }
+
+        final boolean[] replaced = {false};
+        final OnlinePlayer current = this.onlinePlayers.compute(common.uuid(), (id, previous) -> {
+            if (previous == null || (previous.player().carbonPlayerCommon() != common && previous.load() < load)) {
+                replaced[0] = true;
+                return new OnlinePlayer(wrapped, load);
+            }
+            return previous;
         });
+        if (replaced[0]) {
+            this.partyMembers.playerOnline(common.uuid(), common.partyId());
+            // the listener indexes hold the player instance, swap in the new one
+            this.channelRegistry.get().updateListener(wrapped);
+        }
+        // a load which lost to a newer one returns the newer player
+        return current.player();
+    }
+
+    @Override
+    public @Nullable WrappedCarbonPlayer onlineUser(final UUID uuid) {
+        final @Nullable OnlinePlayer online = this.onlinePlayers.get(uuid);
+        return online == null ? null : online.player();
     }
 
     @Override
@@ -77,6 +130,11 @@ public final class PlatformUserManager implements UserManagerInternal<WrappedCar
     @Override
     public void saveCompleteMessageReceived(final UUID playerId) {
         this.backingManager.saveCompleteMessageReceived(playerId);
+        // another server changed this player, reload so chat, mutes and ignores see the change. The old
+        // instance keeps being served until the reload completes and wrap replaces it
+        if (this.onlinePlayers.containsKey(playerId)) {
+            this.user(playerId);
+        }
     }
 
     @Override
@@ -86,9 +144,17 @@ public final class PlatformUserManager implements UserManagerInternal<WrappedCar
 
     @Override
     public CompletableFuture<Void> loggedOut(final UUID uuid) {
+        this.onlinePlayers.remove(uuid);
+        this.channelRegistry.get().removeListener(uuid);
+        this.partyMembers.playerOffline(uuid);
         return this.backingManager.loggedOut(uuid);
     }
 
+    @Override
+    public void saveDirty() {
+        this.backingManager.saveDirty();
+    }
+
     @Override
     public void cleanup() {
         this.backingManager.cleanup();
@@ -119,6 +185,9 @@ public final class PlatformUserManager implements UserManagerInternal<WrappedCar
         this.backingManager.disbandPartyMessageReceived(pkt);
     }
 
+    private record OnlinePlayer(WrappedCarbonPlayer player, long load) {
+    }
+
     public interface PlayerFactory {
 
         WrappedCarbonPlayer wrap(CarbonPlayerCommon common);
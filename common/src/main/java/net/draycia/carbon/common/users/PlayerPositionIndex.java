@@ -0,0 +1,203 @@
+/*
+ * CarbonChat
+ *
+ * Copyright (c) 2024 Josua Parks (Vicarious)
+ *                    Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.draycia.carbon.common.users;
+
+import com.google.inject.Singleton;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import net.kyori.adventure.key.Key;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+/**
+ * Per-world grid of the last known player positions.
+ *
+ * <p>Platforms that can observe player movement keep this index up to date through
+ * {@link #update(UUID, Key, double, double, double)} and {@link #remove(UUID)}. Radius
+ * channels then only have to look at the cells overlapping the sender's radius instead
+ * of resolving and comparing the location of every recipient.</p>
+ *
+ * <p>Players that have never been reported are simply unknown to the index; callers are
+ * expected to fall back to {@link net.draycia.carbon.api.users.CarbonPlayer#distanceSquaredFrom}
+ * and {@link net.draycia.carbon.api.users.CarbonPlayer#sameWorldAs} for them.</p>
+ */
+@Singleton
+@DefaultQualifier(NonNull.class)
+public final class PlayerPositionIndex {
+
+    private static final int CELL_SHIFT = 6; // 64 block cells
+
+    private final Map<UUID, Position> positions = new ConcurrentHashMap<>();
+    private final Map<Key, Map<Long, Set<UUID>>> worlds = new ConcurrentHashMap<>();
+
+    public void update(final UUID player, final Key world, final double x, final double y, final double z) {
+        final Position position = new Position(world, x, y, z, cell(x, z));
+        final @Nullable Position previous = this.positions.put(player, position);
+
+        if (previous != null && previous.world.equals(world) && previous.cell == position.cell) {
+            return;
+        }
+
+        this.worlds.computeIfAbsent(world, $ -> new ConcurrentHashMap<>())
+            .compute(position.cell, ($, cell) -> {
+                final Set<UUID> players = cell == null ? ConcurrentHashMap.newKeySet() : cell;
+                players.add(player);
+                return players;
+            });
+
+        if (previous != null) {
+            this.removeFromCell(player, previous);
+        }
+    }
+
+    public void remove(final UUID player) {
+        final @Nullable Position previous = this.positions.remove(player);
+
+        if (previous != null) {
+            this.removeFromCell(player, previous);
+        }
+    }
+
+    public boolean tracked(final UUID player) {
+        return this.positions.containsKey(player);
+    }
+
+    /**
+     * Gets the players in the same world as the given player.
+     *
+     * @param player the player
+     * @return the players in the same world, or {@code null} if the player is not tracked
+     */
+    public @Nullable Set<UUID> sameWorld(final UUID player) {
+        final @Nullable Position center = this.positions.get(player);
+
+        if (center == null) {
+            return null;
+        }
+
+        final Set<UUID> result = new HashSet<>();
+        final @Nullable Map<Long, Set<UUID>> cells = this.worlds.get(center.world);
+
+        if (cells != null) {
+            for (final Set<UUID> cell : cells.values()) {
+                result.addAll(cell);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Gets the players within {@code radius} blocks of the given player.
+     *
+     * @param player the player
+     * @param radius the radius in blocks
+     * @return the nearby players, or {@code null} if the player is not tracked
+     */
+    public @Nullable Set<UUID> nearby(final UUID player, final double radius) {
+        final @Nullable Position center = this.positions.get(player);
+
+        if (center == null) {
+            return null;
+        }
+
+        final Set<UUID> result = new HashSet<>();
+        final @Nullable Map<Long, Set<UUID>> cells = this.worlds.get(center.world);
+
+        if (cells == null) {
+            return result;
+        }
+
+        final int minX = (int) Math.floor(center.x - radius) >> CELL_SHIFT;
+        final int maxX = (int) Math.floor(center.x + radius) >> CELL_SHIFT;
+        final int minZ = (int) Math.floor(center.z - radius) >> CELL_SHIFT;
+        final int maxZ = (int) Math.floor(center.z + radius) >> CELL_SHIFT;
+        final long area = ((long) maxX - minX + 1) * ((long) maxZ - minZ + 1);
+
+        if (area > cells.size()) {
+            // very large radius, walking the occupied cells is cheaper than the covered ones
+            for (final Set<UUID> cell : cells.values()) {
+                this.collect(cell, center, radius, result);
+            }
+            return result;
+        }
+
+        for (int cx = minX; cx <= maxX; cx++) {
+            for (int cz = minZ; cz <= maxZ; cz++) {
+                final @Nullable Set<UUID> cell = cells.get(pack(cx, cz));
+
+                if (cell != null) {
+                    this.collect(cell, center, radius, result);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private void collect(final Set<UUID> cell, final Position center, final double radius, final Set<UUID> result) {
+        final double radiusSquared = radius * radius;
+
+        for (final UUID uuid : cell) {
+            final @Nullable Position position = this.positions.get(uuid);
+
+            if (position != null && position.world.equals(center.world) && position.distanceSquared(center) <= radiusSquared) {
+                result.add(uuid);
+            }
+        }
+    }
+
+    private void removeFromCell(final UUID player, final Position position) {
+        final @Nullable Map<Long, Set<UUID>> cells = this.worlds.get(position.world);
+
+        if (cells == null) {
+            return;
+        }
+
+        cells.computeIfPresent(position.cell, ($, cell) -> {
+            cell.remove(player);
+            return cell.isEmpty() ? null : cell;
+        });
+    }
+
+    private static long cell(final double x, final double z) {
+        return pack((int) Math.floor(x) >> CELL_SHIFT, (int) Math.floor(z) >> CELL_SHIFT);
+    }
+
+    private static long pack(final int cellX, final int cellZ) {
+        return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+    }
+
+    private record Position(Key world, double x, double y, double z, long cell) {
+
+        double distanceSquared(final Position other) {
+            final double dx = this.x - other.x;
+            final double dy = this.y - other.y;
+            final double dz = this.z - other.z;
+            return dx * dx + dy * dy + dz * dz;
+        }
+
+    }
+
+}
@@ -21,6 +21,7 @@ package net.draycia.carbon.common.users;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
 import com.google.gson.reflect.TypeToken;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
@@ -29,13 +30,20 @@ import java.io.BufferedWriter;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.Duration;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Queue;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
 import net.draycia.carbon.common.DataDirectory;
 import net.draycia.carbon.common.serialisation.gson.UUIDSerializerGson;
 import net.draycia.carbon.common.util.FileUtil;
@@ -43,18 +51,34 @@ import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.framework.qual.DefaultQualifier;
 
+/**
+ * Name and id cache for player profiles.
+ *
+ * <p>Reads never lock. Writes are appended to {@code profile_cache.journal} by {@link #flush()},
+ * and folded into the {@code profile_cache.json} snapshot once the journal grows large, or
+ * on {@link #save()}.</p>
+ */
 @DefaultQualifier(NonNull.class)
 @Singleton
 public final class ProfileCache {
 
     private static final long REMOVE_AFTER = Duration.ofDays(7).toMillis();
     private static final long REMOVE_NULL_IDS_AFTER = Duration.ofHours(1).toMillis();
+    private static final long BUCKET_SIZE = Duration.ofMinutes(10).toMillis();
+    private static final int MIN_COMPACT_JOURNAL_ENTRIES = 1024;
 
     private final Gson gson;
     private final Path cacheFile;
-    private final Map<UUID, CacheEntry> byId;
-    private final Map<String, CacheEntry> byName;
-    private final Set<CacheEntry> entries;
+    private final Path journalFile;
+    private final Map<UUID, CacheEntry> byId = new ConcurrentHashMap<>();
+    private final Map<String, CacheEntry> byName = new ConcurrentHashMap<>();
+    // entries by the time bucket they were updated in, so expiry only touches whole buckets
+    private final NavigableMap<Long, Set<CacheEntry>> buckets = new ConcurrentSkipListMap<>();
+    private final NavigableMap<Long, Set<CacheEntry>> nullIdBuckets = new ConcurrentSkipListMap<>();
+    private final Queue<CacheEntry> pendingWrites = new ConcurrentLinkedQueue<>();
+    private final Object writeLock = new Object();
+    private final Object persistLock = new Object();
+    private int journalEntries;
 
     private record CacheEntry(@Nullable UUID uuid, @Nullable String name, long updated) {
 
@@ -66,13 +90,11 @@ public final class ProfileCache {
             .registerTypeAdapter(UUID.class, new UUIDSerializerGson())
             .create();
         this.cacheFile = dataDirectory.resolve("users/profile_cache.json");
-        this.byId = new HashMap<>();
-        this.byName = new HashMap<>();
-        this.entries = new HashSet<>();
+        this.journalFile = dataDirectory.resolve("users/profile_cache.journal");
         this.load();
     }
 
-    public synchronized @Nullable String cachedName(final UUID id) {
+    public @Nullable String cachedName(final UUID id) {
         final @Nullable CacheEntry entry = this.byId.get(id);
         if (entry == null) {
             return null;
@@ -82,7 +104,7 @@ public final class ProfileCache {
         return entry.name();
     }
 
-    public synchronized @Nullable UUID cachedId(final String name) {
+    public @Nullable UUID cachedId(final String name) {
         final @Nullable CacheEntry entry = this.byName.get(name);
         if (entry == null) {
             return null;
@@ -92,7 +114,7 @@ public final class ProfileCache {
         return entry.uuid();
     }
 
-    public synchronized boolean hasCachedEntry(final String name) {
+    public boolean hasCachedEntry(final String name) {
         final @Nullable CacheEntry entry = this.byName.get(name);
         if (entry == null) {
             return false;
@@ -100,7 +122,7 @@ public final class ProfileCache {
         return entry.updated() >= cutoff();
     }
 
-    public synchronized boolean hasCachedEntry(final UUID uuid) {
+    public boolean hasCachedEntry(final UUID uuid) {
         final @Nullable CacheEntry entry = this.byId.get(uuid);
         if (entry == null) {
             return false;
@@ -108,40 +130,75 @@ public final class ProfileCache {
         return entry.updated() >= cutoff();
     }
 
-    public synchronized void cache(final @Nullable UUID uuid, final @Nullable String name) {
-        final @Nullable CacheEntry r1 = uuid == null ? null : this.byId.remove(uuid);
-        final @Nullable CacheEntry r2 = name == null ? null : this.byName.remove(name);
-        if (r1 != null) {
-            this.entries.remove(r1);
+    public void cache(final @Nullable UUID uuid, final @Nullable String name) {
+        final CacheEntry entry = new CacheEntry(uuid, name, System.currentTimeMillis());
+        this.put(entry);
+        this.pendingWrites.add(entry);
+    }
+
+    private void put(final CacheEntry entry) {
+        synchronized (this.writeLock) {
+            final @Nullable CacheEntry r1 = entry.uuid() == null ? null : this.byId.get(entry.uuid());
+            final @Nullable CacheEntry r2 = entry.name() == null ? null : this.byName.get(entry.name());
+            if (r1 != null && r1.updated() > entry.updated() || r2 != null && r2.updated() > entry.updated()) {
+                // replaying an older journal entry
+                return;
+            }
+            if (r1 != null) {
+                this.unlink(r1);
+            }
+            if (r2 != null) {
+                this.unlink(r2);
+            }
+            if (entry.name() != null) {
+                this.byName.put(entry.name(), entry);
+            }
+            if (entry.uuid() != null) {
+                this.byId.put(entry.uuid(), entry);
+            }
+            bucket(entry.uuid() == null ? this.nullIdBuckets : this.buckets, entry.updated()).add(entry);
         }
-        if (r2 != null) {
-            this.entries.remove(r2);
+    }
+
+    private void unlink(final CacheEntry entry) {
+        if (entry.uuid() != null) {
+            this.byId.remove(entry.uuid(), entry);
         }
-        final CacheEntry entry = new CacheEntry(uuid, name, System.currentTimeMillis());
-        this.entries.add(entry);
         if (entry.name() != null) {
-            this.byName.put(entry.name(), entry);
+            this.byName.remove(entry.name(), entry);
         }
-        if (entry.uuid() != null) {
-            this.byId.put(entry.uuid(), entry);
+        final @Nullable Set<CacheEntry> bucket = (entry.uuid() == null ? this.nullIdBuckets : this.buckets).get(entry.updated() / BUCKET_SIZE);
+        if (bucket != null) {
+            bucket.remove(entry);
+        }
+    }
+
+    private static Set<CacheEntry> bucket(final NavigableMap<Long, Set<CacheEntry>> buckets, final long updated) {
+        return buckets.computeIfAbsent(updated / BUCKET_SIZE, $ -> ConcurrentHashMap.newKeySet());
+    }
+
+    private void cleanup() {
+        synchronized (this.writeLock) {
+            expire(this.buckets, cutoff());
+            expire(this.nullIdBuckets, nullIdCutoff());
         }
     }
 
-    private synchronized void cleanup() {
-        final long cutoff = cutoff();
-        final long nullIdCutoff = nullIdCutoff();
-        for (final Iterator<CacheEntry> iterator = this.entries.iterator(); iterator.hasNext();) {
-            final CacheEntry entry = iterator.next();
-            if (entry.updated() < cutoff || entry.uuid() == null && entry.updated() < nullIdCutoff) {
-                iterator.remove();
+    // drops the buckets that are entirely older than the cutoff, entries in the bucket
+    // straddling it are already hidden from lookups and go with the next one
+    private void expire(final NavigableMap<Long, Set<CacheEntry>> buckets, final long cutoff) {
+        final NavigableMap<Long, Set<CacheEntry>> expired = buckets.headMap(cutoff / BUCKET_SIZE, false);
+        for (final Set<CacheEntry> bucket : expired.values()) {
+            for (final CacheEntry entry : bucket) {
                 if (entry.uuid() != null) {
-                    this.byId.remove(entry.uuid());
+                    this.byId.remove(entry.uuid(), entry);
                 }
                 if (entry.name() != null) {
-                    this.byName.remove(entry.name());
+                    this.byName.remove(entry.name(), entry);
                 }
             }
         }
+        expired.clear();
     }
 
     private static long nullIdCutoff() {
@@ -152,38 +209,107 @@ public final class ProfileCache {
         return System.currentTimeMillis() - REMOVE_AFTER;
     }
 
-    private synchronized void load() {
-        this.entries.clear();
-        this.byId.clear();
-        this.byName.clear();
-        if (!Files.exists(this.cacheFile)) {
-            return;
-        }
+    private void load() {
         try {
-            try (final BufferedReader reader = Files.newBufferedReader(this.cacheFile)) {
-                final Set<CacheEntry> load = this.gson.fromJson(reader, new TypeToken<Set<CacheEntry>>() {}.getType());
-                this.entries.addAll(load);
-                for (final CacheEntry entry : this.entries) {
-                    if (entry.name() != null) {
-                        this.byName.put(entry.name(), entry);
+            if (Files.exists(this.cacheFile)) {
+                try (final BufferedReader reader = Files.newBufferedReader(this.cacheFile)) {
+                    final @Nullable Set<CacheEntry> load = this.gson.fromJson(reader, new TypeToken<Set<CacheEntry>>() {}.getType());
+                    if (load != null) {
+                        load.forEach(this::put);
                     }
-                    if (entry.uuid() != null) {
-                        this.byId.put(entry.uuid(), entry);
+                }
+            }
+            boolean torn = false;
+            if (Files.exists(this.journalFile)) {
+                try (final BufferedReader reader = Files.newBufferedReader(this.journalFile)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (line.isBlank()) {
+                            continue;
+                        }
+                        try {
+                            final @Nullable CacheEntry entry = this.gson.fromJson(line, CacheEntry.class);
+                            if (entry != null) {
+                                this.put(entry);
+                            }
+                            this.journalEntries++;
+                        } catch (final JsonParseException ignore) {
+                            // torn write from a crash. Later appends may have been written onto the end of it,
+                            // so skip only this line
+                            torn = true;
+                        }
                     }
                 }
             }
+            if (torn) {
+                // rewrite from memory, otherwise the next append lands on the end of the torn line
+                this.compact();
+            }
         } catch (final IOException ex) {
             throw new RuntimeException("Failed to load cache", ex);
         }
     }
 
-    public synchronized void save() {
-        this.cleanup();
-        try (final BufferedWriter writer = Files.newBufferedWriter(FileUtil.mkParentDirs(this.cacheFile))) {
-            this.gson.toJson(this.entries, writer);
+    /**
+     * Appends the changes made since the last flush to the journal, compacting it into the
+     * snapshot once it holds more entries than the cache itself.
+     */
+    public void flush() {
+        synchronized (this.persistLock) {
+            this.cleanup();
+            this.appendJournal();
+            if (this.journalEntries > Math.max(MIN_COMPACT_JOURNAL_ENTRIES, this.byId.size() + this.byName.size())) {
+                this.compact();
+            }
+        }
+    }
+
+    /**
+     * Writes a full snapshot and clears the journal.
+     */
+    public void save() {
+        synchronized (this.persistLock) {
+            this.cleanup();
+            this.appendJournal();
+            this.compact();
+        }
+    }
+
+    private void appendJournal() {
+        final List<CacheEntry> drained = new ArrayList<>();
+        @Nullable CacheEntry entry;
+        while ((entry = this.pendingWrites.poll()) != null) {
+            drained.add(entry);
+        }
+        if (drained.isEmpty()) {
+            return;
+        }
+        try (final BufferedWriter writer = Files.newBufferedWriter(FileUtil.mkParentDirs(this.journalFile), StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (final CacheEntry write : drained) {
+                writer.write(this.gson.toJson(write));
+                writer.newLine();
+            }
+        } catch (final IOException ex) {
+            throw new RuntimeException("Failed to append to cache journal", ex);
+        }
+        this.journalEntries += drained.size();
+    }
+
+    private void compact() {
+        // writes racing with this are still queued for the next journal append
+        final Set<CacheEntry> entries = new HashSet<>(this.byId.values());
+        entries.addAll(this.byName.values());
+        final Path temp = this.cacheFile.resolveSibling(this.cacheFile.getFileName() + ".tmp");
+        try {
+            try (final BufferedWriter writer = Files.newBufferedWriter(FileUtil.mkParentDirs(temp))) {
+                this.gson.toJson(entries, writer);
+            }
+            Files.move(temp, this.cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.deleteIfExists(this.journalFile);
         } catch (final IOException ex) {
             throw new RuntimeException("Failed to save cache", ex);
         }
+        this.journalEntries = 0;
     }
 
 }
@@ -0,0 +1,122 @@
+/*
+ * CarbonChat
+ *
+ * Copyright (c) 2024 Josua Parks (Vicarious)
+ *                    Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.draycia.carbon.common.users;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+import static net.draycia.carbon.common.users.PlayerUtils.saveExceptionHandler;
+
+/**
+ * Write-behind buffer for property change saves. Changes made to a player within
+ * the configured delay are written together in a single save.
+ */
+@DefaultQualifier(NonNull.class)
+public final class SaveCoalescer {
+
+    private final Logger logger;
+    private final Function<CarbonPlayerCommon, CompletableFuture<Void>> save;
+    private final long delayMillis;
+    private final Map<UUID, CarbonPlayerCommon> pending = new ConcurrentHashMap<>();
+    private final LongAdder requested = new LongAdder();
+    private final LongAdder executed = new LongAdder();
+
+    SaveCoalescer(
+        final Logger logger,
+        final Function<CarbonPlayerCommon, CompletableFuture<Void>> save,
+        final long delayMillis
+    ) {
+        this.logger = logger;
+        this.save = save;
+        this.delayMillis = delayMillis;
+    }
+
+    /**
+     * Request a save for {@code player}, to be executed once the delay passes.
+     *
+     * @param player player
+     */
+    public void requestSave(final CarbonPlayerCommon player) {
+        this.requested.increment();
+        if (this.pending.putIfAbsent(player.uuid(), player) != null) {
+            return;
+        }
+        if (this.delayMillis <= 0) {
+            this.flush(player.uuid());
+            return;
+        }
+        CompletableFuture.delayedExecutor(this.delayMillis, TimeUnit.MILLISECONDS).execute(() -> this.flush(player.uuid()));
+    }
+
+    /**
+     * Drop the pending save for a player, because the caller is saving it right away.
+     *
+     * @param id player id
+     */
+    public void cancel(final UUID id) {
+        this.pending.remove(id);
+    }
+
+    public CompletableFuture<Void> flush(final UUID id) {
+        final @Nullable CarbonPlayerCommon player = this.pending.remove(id);
+        // nothing left to write if another save ran in the meantime
+        if (player == null || !player.needsSave()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        this.executed.increment();
+        return this.save.apply(player).exceptionally(saveExceptionHandler(this.logger, player.username, id));
+    }
+
+    public void flushAll() {
+        final List<CompletableFuture<Void>> futures = List.copyOf(this.pending.keySet()).stream()
+            .map(this::flush)
+            .toList();
+        futures.forEach(CompletableFuture::join);
+    }
+
+    /**
+     * The number of saves requested by property changes.
+     *
+     * @return requested saves
+     */
+    public long requested() {
+        return this.requested.sum();
+    }
+
+    /**
+     * The number of saves actually executed for property changes.
+     *
+     * @return executed saves
+     */
+    public long executed() {
+        return this.executed.sum();
+    }
+
+}
@@ -19,6 +19,8 @@
  */
 package net.draycia.carbon.common.users;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import net.draycia.carbon.api.users.CarbonPlayer;
@@ -26,6 +28,7 @@ import net.draycia.carbon.api.users.UserManager;
 import net.draycia.carbon.common.messaging.packets.DisbandPartyPacket;
 import net.draycia.carbon.common.messaging.packets.PartyChangePacket;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.framework.qual.DefaultQualifier;
 
 @DefaultQualifier(NonNull.class)
@@ -33,6 +36,24 @@ public interface UserManagerInternal<C extends CarbonPlayer> extends UserManager
 
     void shutdown();
 
+    /**
+     * Get or load several users at once. Users that are not cached are loaded in batches where the storage supports it.
+     *
+     * @param uuids user ids
+     * @return a future for each user
+     */
+    Map<UUID, CompletableFuture<C>> users(Collection<UUID> uuids);
+
+    /**
+     * Gets a player who is online and already loaded, without blocking.
+     *
+     * @param uuid the player's id
+     * @return the player, or null if they aren't online or aren't loaded yet
+     */
+    default @Nullable C onlineUser(final UUID uuid) {
+        return this.user(uuid).getNow(null);
+    }
+
     CompletableFuture<Void> saveIfNeeded(C player);
 
     CompletableFuture<Void> loggedOut(UUID uuid);
@@ -41,6 +62,11 @@ public interface UserManagerInternal<C extends CarbonPlayer> extends UserManager
 
     void cleanup();
 
+    /**
+     * Saves a bounded batch of the players whose data changed since their last save.
+     */
+    void saveDirty();
+
     CompletableFuture<Void> saveParty(PartyImpl info);
 
     void disbandParty(UUID id);
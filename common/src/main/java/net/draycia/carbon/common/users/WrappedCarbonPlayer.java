@@ -78,7 +78,7 @@ public abstract class WrappedCarbonPlayer implements CarbonPlayer {
             resolver.resolver(MiniPlaceholders.getAudiencePlaceholders(this));
         }
 
-        return TagPermissions.parseTags(TagPermissions.MESSAGE, message, this::hasPermission, resolver);
+        return TagPermissions.parseTags(TagPermissions.MESSAGE, message, this::hasPermission, resolver.build());
     }
 
     @Override
@@ -24,10 +24,12 @@ import com.google.inject.Injector;
 import com.google.inject.Provider;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
 import java.util.UUID;
 import java.util.function.Consumer;
 import net.draycia.carbon.api.CarbonChat;
@@ -36,10 +38,13 @@ import net.draycia.carbon.api.channels.ChannelRegistry;
 import net.draycia.carbon.api.channels.ChatChannel;
 import net.draycia.carbon.common.config.ConfigManager;
 import net.draycia.carbon.common.config.DatabaseSettings;
+import net.draycia.carbon.common.config.PersistenceSettings;
 import net.draycia.carbon.common.messaging.MessagingManager;
 import net.draycia.carbon.common.messaging.packets.PacketFactory;
+import net.draycia.carbon.common.metrics.CarbonMetrics;
 import net.draycia.carbon.common.users.CachingUserManager;
 import net.draycia.carbon.common.users.CarbonPlayerCommon;
+import net.draycia.carbon.common.users.NetworkUsers;
 import net.draycia.carbon.common.users.PartyImpl;
 import net.draycia.carbon.common.users.ProfileResolver;
 import net.draycia.carbon.common.users.db.argument.ComponentArgumentFactory;
@@ -63,6 +68,7 @@ import org.flywaydb.core.api.logging.LogCreator;
 import org.flywaydb.core.api.logging.LogFactory;
 import org.jdbi.v3.core.Handle;
 import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.core.result.RowView;
 import org.jdbi.v3.core.statement.PreparedBatch;
 import org.jdbi.v3.core.statement.Update;
 import org.jdbi.v3.sqlobject.SqlObjectPlugin;
@@ -70,6 +76,8 @@ import org.jdbi.v3.sqlobject.SqlObjectPlugin;
 @DefaultQualifier(NonNull.class)
 public final class DatabaseUserManager extends CachingUserManager {
 
+    private static final int LOAD_BATCH_SIZE = 100;
+
     private final Jdbi jdbi;
     private final QueriesLocator locator;
     private final ChannelRegistry channelRegistry;
@@ -83,17 +91,23 @@ public final class DatabaseUserManager extends CachingUserManager {
         final ProfileResolver profileResolver,
         final Injector injector,
         final Provider<MessagingManager> messagingManager,
+        final Provider<NetworkUsers> networkUsers,
         final PacketFactory packetFactory,
         final ChannelRegistry channelRegistry,
-        final CarbonServer server
+        final CarbonServer server,
+        final PersistenceSettings persistenceSettings,
+        final CarbonMetrics metrics
     ) {
         super(
             logger,
             profileResolver,
             injector,
             messagingManager,
+            networkUsers,
             packetFactory,
-            server
+            server,
+            persistenceSettings,
+            metrics
         );
         this.jdbi = jdbi;
         this.dataSource = dataSource;
@@ -103,69 +117,102 @@ public final class DatabaseUserManager extends CachingUserManager {
 
     @Override
     public CarbonPlayerCommon loadOrCreate(final UUID uuid) {
-        return this.jdbi.withHandle(handle -> {
-            final @Nullable CarbonPlayerCommon carbonPlayerCommon = handle.createQuery(this.locator.query("select-player"))
-                .bind("id", uuid)
-                .mapTo(CarbonPlayerCommon.class)
-                .findOne()
-                .orElse(null);
-            if (carbonPlayerCommon == null) {
-                return new CarbonPlayerCommon(null, uuid);
-            }
-
-            handle.createQuery(this.locator.query("select-ignores"))
-                .bind("id", uuid)
-                .mapTo(UUID.class)
-                .forEach(ignoredPlayer -> carbonPlayerCommon.ignoring(ignoredPlayer, true, true));
-            handle.createQuery(this.locator.query("select-leftchannels"))
-                .bind("id", uuid)
-                .mapTo(Key.class)
-                .forEach(channel -> {
-                    final @Nullable ChatChannel chatChannel = this.channelRegistry.channel(channel);
-
-                    if (chatChannel == null) {
-                        return;
-                    }
+        return this.loadOrCreate(List.of(uuid)).get(uuid);
+    }
 
-                    carbonPlayerCommon.leaveChannel(chatChannel, true);
-                });
-            return carbonPlayerCommon;
-        });
+    @Override
+    protected Map<UUID, CarbonPlayerCommon> loadOrCreate(final Collection<UUID> uuids) {
+        // the player rows, ignores and left channels are fetched with a single UNION ALL query, so loading takes one round trip
+        final Map<UUID, PlayerData> data = this.jdbi.withHandle(handle -> handle.createQuery(this.locator.query("select-player-data"))
+            .bindList("ids", List.copyOf(uuids))
+            .reduceRows(new HashMap<UUID, PlayerData>(), (acc, row) -> {
+                acc.computeIfAbsent(row.getColumn("id", UUID.class), $ -> new PlayerData()).accept(row);
+                return acc;
+            }));
+
+        final Map<UUID, CarbonPlayerCommon> players = new HashMap<>();
+        for (final UUID uuid : uuids) {
+            players.put(uuid, this.createPlayer(uuid, data.get(uuid)));
+        }
+        return players;
     }
 
     @Override
-    public void saveSync(final CarbonPlayerCommon player) {
-        this.jdbi.useTransaction(handle -> {
-            final int inserted = this.bindPlayerArguments(handle.createUpdate(this.locator.query("insert-player")), player).execute();
-            if (inserted != 1) {
-                this.bindPlayerArguments(handle.createUpdate(this.locator.query("update-player")), player).execute();
+    protected int loadBatchSize() {
+        return LOAD_BATCH_SIZE;
+    }
+
+    private CarbonPlayerCommon createPlayer(final UUID uuid, final @Nullable PlayerData data) {
+        if (data == null || data.player == null) {
+            return new CarbonPlayerCommon(null, uuid);
+        }
+        final CarbonPlayerCommon carbonPlayerCommon = data.player;
+
+        for (final UUID ignoredPlayer : data.ignores) {
+            carbonPlayerCommon.ignoring(ignoredPlayer, true, true);
+        }
+        for (final Key channel : data.leftChannels) {
+            final @Nullable ChatChannel chatChannel = this.channelRegistry.channel(channel);
+
+            if (chatChannel == null) {
+                continue;
             }
 
-            handle.createUpdate(this.locator.query("clear-ignores"))
-                .bind("id", player.uuid())
-                .execute();
-            handle.createUpdate(this.locator.query("clear-leftchannels"))
-                .bind("id", player.uuid())
-                .execute();
-
-            final Set<UUID> ignored = player.ignoring();
-            if (!ignored.isEmpty()) {
-                final PreparedBatch batch = handle.prepareBatch(this.locator.query("save-ignores"));
-                for (final UUID ignoredPlayer : ignored) {
-                    batch.bind("id", player.uuid()).bind("ignoredplayer", ignoredPlayer).add();
+            carbonPlayerCommon.leaveChannel(chatChannel, true);
+        }
+        carbonPlayerCommon.markPersisted();
+        return carbonPlayerCommon;
+    }
+
+    @Override
+    public void saveSync(final CarbonPlayerCommon player) {
+        final CarbonPlayerCommon.PendingChanges changes = player.pollChanges();
+        try {
+            this.jdbi.useTransaction(handle -> {
+                if (changes.row()) {
+                    this.bindPlayerArguments(handle.createUpdate(this.locator.query("upsert-player")), player).execute();
                 }
-                batch.execute();
-            }
+                this.saveChanges(handle, player.uuid(), changes.ignores(), "save-ignores", "drop-ignore", "ignoredplayer");
+                this.saveChanges(handle, player.uuid(), changes.leftChannels(), "save-leftchannels", "drop-leftchannel", "channel");
+            });
+        } catch (final RuntimeException ex) {
+            player.restoreChanges(changes);
+            throw ex;
+        }
+    }
 
-            final List<Key> left = player.leftChannels();
-            if (!left.isEmpty()) {
-                final PreparedBatch batch = handle.prepareBatch(this.locator.query("save-leftchannels"));
-                for (final Key leftChannel : left) {
-                    batch.bind("id", player.uuid()).bind("channel", leftChannel).add();
+    private <T> void saveChanges(
+        final Handle handle,
+        final UUID id,
+        final Map<T, PartyImpl.ChangeType> changes,
+        final String insertQuery,
+        final String deleteQuery,
+        final String column
+    ) {
+        @Nullable PreparedBatch add = null;
+        @Nullable PreparedBatch remove = null;
+        for (final Map.Entry<T, PartyImpl.ChangeType> entry : changes.entrySet()) {
+            switch (entry.getValue()) {
+                case ADD -> {
+                    if (add == null) {
+                        add = handle.prepareBatch(this.locator.query(insertQuery));
+                    }
+                    add.bind("id", id).bind(column, entry.getKey()).add();
+                }
+                case REMOVE -> {
+                    if (remove == null) {
+                        remove = handle.prepareBatch(this.locator.query(deleteQuery));
+                    }
+                    remove.bind("id", id).bind(column, entry.getKey()).add();
                 }
-                batch.execute();
             }
-        });
+        }
+        if (add != null) {
+            add.execute();
+        }
+        if (remove != null) {
+            remove.execute();
+        }
     }
 
     @Override
@@ -276,8 +323,10 @@ public final class DatabaseUserManager extends CachingUserManager {
         private final ProfileResolver profileResolver;
         private final Injector injector;
         private final Provider<MessagingManager> messagingManager;
+        private final Provider<NetworkUsers> networkUsers;
         private final PacketFactory packetFactory;
         private final CarbonServer server;
+        private final CarbonMetrics metrics;
 
         @Inject
         private Factory(
@@ -287,8 +336,10 @@ public final class DatabaseUserManager extends CachingUserManager {
             final ProfileResolver profileResolver,
             final Injector injector,
             final Provider<MessagingManager> messagingManager,
+            final Provider<NetworkUsers> networkUsers,
             final PacketFactory packetFactory,
-            final CarbonServer server
+            final CarbonServer server,
+            final CarbonMetrics metrics
         ) {
             this.channelRegistry = channelRegistry;
             this.configManager = configManager;
@@ -296,8 +347,10 @@ public final class DatabaseUserManager extends CachingUserManager {
             this.profileResolver = profileResolver;
             this.injector = injector;
             this.messagingManager = messagingManager;
+            this.networkUsers = networkUsers;
             this.packetFactory = packetFactory;
             this.server = server;
+            this.metrics = metrics;
         }
 
         public DatabaseUserManager create(final String migrationsLocation, final Consumer<Jdbi> configureJdbi) {
@@ -357,14 +410,35 @@ public final class DatabaseUserManager extends CachingUserManager {
                 this.profileResolver,
                 this.injector,
                 this.messagingManager,
+                this.networkUsers,
                 this.packetFactory,
                 this.channelRegistry,
-                this.server
+                this.server,
+                this.configManager.primaryConfig().persistenceSettings(),
+                this.metrics
             );
         }
 
     }
 
+    private static final class PlayerData {
+
+        private @Nullable CarbonPlayerCommon player;
+        private final List<UUID> ignores = new ArrayList<>();
+        private final List<Key> leftChannels = new ArrayList<>();
+
+        PlayerData accept(final RowView row) {
+            switch (row.getColumn("entrytype", Integer.class)) {
+                case 0 -> this.player = row.getRow(CarbonPlayerCommon.class);
+                case 1 -> this.ignores.add(row.getColumn("ignoredplayer", UUID.class));
+                case 2 -> this.leftChannels.add(row.getColumn("channel", Key.class));
+                default -> throw new IllegalStateException("Unknown entry type");
+            }
+            return this;
+        }
+
+    }
+
     private record CarbonLogCreator(Logger logger) implements LogCreator {
 
         @Override
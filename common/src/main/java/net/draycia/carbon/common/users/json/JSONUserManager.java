@@ -35,12 +35,15 @@ import net.draycia.carbon.api.channels.ChannelRegistry;
 import net.draycia.carbon.api.channels.ChatChannel;
 import net.draycia.carbon.common.DataDirectory;
 import net.draycia.carbon.common.channels.CarbonChannelRegistry;
+import net.draycia.carbon.common.config.ConfigManager;
 import net.draycia.carbon.common.messaging.MessagingManager;
 import net.draycia.carbon.common.messaging.packets.PacketFactory;
+import net.draycia.carbon.common.metrics.CarbonMetrics;
 import net.draycia.carbon.common.serialisation.gson.ChatChannelSerializerGson;
 import net.draycia.carbon.common.serialisation.gson.UUIDSerializerGson;
 import net.draycia.carbon.common.users.CachingUserManager;
 import net.draycia.carbon.common.users.CarbonPlayerCommon;
+import net.draycia.carbon.common.users.NetworkUsers;
 import net.draycia.carbon.common.users.PartyImpl;
 import net.draycia.carbon.common.users.PersistentUserProperty;
 import net.draycia.carbon.common.users.ProfileResolver;
@@ -69,17 +72,23 @@ public class JSONUserManager extends CachingUserManager {
         final ChatChannelSerializerGson channelSerializer,
         final UUIDSerializerGson uuidSerializer,
         final Provider<MessagingManager> messagingManager,
+        final Provider<NetworkUsers> networkUsers,
         final PacketFactory packetFactory,
         final CarbonChannelRegistry channelRegistry,
-        final CarbonServer server
+        final CarbonServer server,
+        final ConfigManager configManager,
+        final CarbonMetrics metrics
     ) throws IOException {
         super(
             logger,
             profileResolver,
             injector,
             messagingManager,
+            networkUsers,
             packetFactory,
-            server
+            server,
+            configManager.primaryConfig().persistenceSettings(),
+            metrics
         );
         this.userDirectory = dataDirectory.resolve("users");
         this.partyDirectory = dataDirectory.resolve("party");
@@ -137,6 +146,8 @@ public class JSONUserManager extends CachingUserManager {
     @Override
     public void saveSync(final CarbonPlayerCommon player) {
         final Path userFile = this.userFile(player.uuid());
+        // the whole file is rewritten, the changes are only polled to reset them
+        final CarbonPlayerCommon.PendingChanges changes = player.pollChanges();
 
         try {
             final String json = this.serializer.toJson(player);
@@ -147,7 +158,11 @@ public class JSONUserManager extends CachingUserManager {
 
             Files.writeString(FileUtil.mkParentDirs(userFile), json);
         } catch (final IOException exception) {
+            player.restoreChanges(changes);
             throw new RuntimeException("Exception while saving data for player [%s]".formatted(player.username()), exception);
+        } catch (final RuntimeException exception) {
+            player.restoreChanges(changes);
+            throw exception;
         }
     }
 
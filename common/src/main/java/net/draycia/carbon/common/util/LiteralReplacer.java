@@ -0,0 +1,189 @@
+/*
+ * CarbonChat
+ *
+ * Copyright (c) 2024 Josua Parks (Vicarious)
+ *                    Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.draycia.carbon.common.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+/**
+ * Replaces many literal strings in a single pass, using an Aho-Corasick automaton.
+ *
+ * <p>Matching is linear in the input length no matter how many strings are registered.
+ * Overlapping matches resolve leftmost first, then longest.</p>
+ */
+@DefaultQualifier(NonNull.class)
+public final class LiteralReplacer {
+
+    private static final LiteralReplacer EMPTY = new LiteralReplacer(Map.of(), false);
+
+    private final boolean ignoreCase;
+    private final List<Node> nodes = new ArrayList<>();
+    private final List<String> replacements = new ArrayList<>();
+
+    private LiteralReplacer(final Map<String, String> replacements, final boolean ignoreCase) {
+        this.ignoreCase = ignoreCase;
+        this.nodes.add(new Node());
+        for (final Map.Entry<String, String> entry : replacements.entrySet()) {
+            if (!entry.getKey().isEmpty()) {
+                this.insert(entry.getKey(), entry.getValue());
+            }
+        }
+        this.link();
+    }
+
+    public static LiteralReplacer of(final Map<String, String> replacements, final boolean ignoreCase) {
+        if (replacements.isEmpty()) {
+            return EMPTY;
+        }
+        return new LiteralReplacer(replacements, ignoreCase);
+    }
+
+    public boolean isEmpty() {
+        return this.replacements.isEmpty();
+    }
+
+    public String replace(final String input) {
+        if (this.isEmpty() || input.isEmpty()) {
+            return input;
+        }
+
+        // longest match starting at each index, as index into this.replacements + 1
+        final int[] longestLength = new int[input.length()];
+        final int[] longestReplacement = new int[input.length()];
+        boolean matched = false;
+
+        int state = 0;
+        for (int i = 0; i < input.length(); i++) {
+            state = this.next(state, this.normalize(input.charAt(i)));
+            for (int out = this.nodes.get(state).output() ? state : this.nodes.get(state).outputLink; out > 0; out = this.nodes.get(out).outputLink) {
+                final Node node = this.nodes.get(out);
+                final int start = i - node.depth + 1;
+                if (node.depth > longestLength[start]) {
+                    longestLength[start] = node.depth;
+                    longestReplacement[start] = node.replacement;
+                    matched = true;
+                }
+            }
+        }
+
+        if (!matched) {
+            return input;
+        }
+
+        final StringBuilder builder = new StringBuilder(input.length());
+        int i = 0;
+        while (i < input.length()) {
+            if (longestLength[i] > 0) {
+                builder.append(this.replacements.get(longestReplacement[i]));
+                i += longestLength[i];
+            } else {
+                builder.append(input.charAt(i));
+                i++;
+            }
+        }
+        return builder.toString();
+    }
+
+    private char normalize(final char c) {
+        return this.ignoreCase ? Character.toLowerCase(c) : c;
+    }
+
+    private void insert(final String key, final String replacement) {
+        int state = 0;
+        for (int i = 0; i < key.length(); i++) {
+            final char c = this.normalize(key.charAt(i));
+            final @Nullable Integer child = this.nodes.get(state).children.get(c);
+            if (child != null) {
+                state = child;
+                continue;
+            }
+            final Node node = new Node();
+            node.depth = i + 1;
+            this.nodes.add(node);
+            this.nodes.get(state).children.put(c, this.nodes.size() - 1);
+            state = this.nodes.size() - 1;
+        }
+        final Node end = this.nodes.get(state);
+        if (end.output()) {
+            // keys that only differ by case collapse when ignoring case, last one wins like a map would
+            this.replacements.set(end.replacement, replacement);
+        } else {
+            end.replacement = this.replacements.size();
+            this.replacements.add(replacement);
+        }
+    }
+
+    // breadth first, so every node's failure target is linked before the node itself
+    private void link() {
+        final Queue<Integer> queue = new ArrayDeque<>();
+        for (final int child : this.nodes.get(0).children.values()) {
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            final int state = queue.remove();
+            final Node node = this.nodes.get(state);
+            for (final Map.Entry<Character, Integer> entry : node.children.entrySet()) {
+                final int child = entry.getValue();
+                final Node childNode = this.nodes.get(child);
+                childNode.failure = this.next(node.failure, entry.getKey());
+                final Node failure = this.nodes.get(childNode.failure);
+                childNode.outputLink = failure.output() ? childNode.failure : failure.outputLink;
+                queue.add(child);
+            }
+        }
+    }
+
+    private int next(final int state, final char c) {
+        int current = state;
+        while (true) {
+            final @Nullable Integer child = this.nodes.get(current).children.get(c);
+            if (child != null) {
+                return child;
+            }
+            if (current == 0) {
+                return 0;
+            }
+            current = this.nodes.get(current).failure;
+        }
+    }
+
+    private static final class Node {
+
+        private final Map<Character, Integer> children = new HashMap<>();
+        private int depth;
+        private int failure;
+        // nearest node along the failure chain which ends a key
+        private int outputLink;
+        private int replacement = -1;
+
+        private boolean output() {
+            return this.replacement != -1;
+        }
+
+    }
+
+}
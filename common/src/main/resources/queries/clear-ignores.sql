@@ -1 +0,0 @@
-DELETE FROM carbon_ignores WHERE (id = :id);
@@ -1 +0,0 @@
-DELETE FROM carbon_leftchannels WHERE (id = :id);
@@ -0,0 +1 @@
+DELETE FROM carbon_ignores WHERE (id = :id AND ignoredplayer = :ignoredplayer);
@@ -0,0 +1 @@
+DELETE FROM carbon_leftchannels WHERE (id = :id AND channel = :channel);
@@ -1 +0,0 @@
-SELECT ignoredplayer FROM carbon_ignores WHERE (id = :id);
@@ -0,0 +1,23 @@
+SELECT
+    0 AS entrytype,
+    id,
+    muted,
+    deafened,
+    selectedchannel,
+    displayname,
+    lastwhispertarget,
+    whisperreplytarget,
+    spying,
+    ignoringdms,
+    party,
+    NULL AS ignoredplayer,
+    NULL AS channel
+FROM carbon_users WHERE (id IN (<ids>))
+UNION ALL
+SELECT
+    1, id, NULL, NULL, NULL, NULL, NULL, NULL, NULL, NULL, NULL, ignoredplayer, NULL
+FROM carbon_ignores WHERE (id IN (<ids>))
+UNION ALL
+SELECT
+    2, id, NULL, NULL, NULL, NULL, NULL, NULL, NULL, NULL, NULL, NULL, channel
+FROM carbon_leftchannels WHERE (id IN (<ids>));
@@ -0,0 +1,51 @@
+/*
+ * CarbonChat
+ *
+ * Copyright (c) 2024 Josua Parks (Vicarious)
+ *                    Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.draycia.carbon.common.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.framework.qual.DefaultQualifier;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DefaultQualifier(NonNull.class)
+class ChatFilterTest {
+
+    @Test
+    void backreferenceAfterOtherFilters() {
+        final Map<String, String> filters = new LinkedHashMap<>();
+        filters.put("h(e)llo", "$1");
+        filters.put("(.)\\1{3,}", "$1$1$1");
+
+        assertEquals("e zzz", ChatFilter.compile(filters, false).apply("hello zzzzzz"));
+    }
+
+    @Test
+    void escapedDollarIsNotShifted() {
+        final Map<String, String> filters = new LinkedHashMap<>();
+        filters.put("d(o)g", "$1");
+        filters.put("c(a)t", "\\$1 $1");
+
+        assertEquals("$1 a o", ChatFilter.compile(filters, false).apply("cat dog"));
+    }
+
+}
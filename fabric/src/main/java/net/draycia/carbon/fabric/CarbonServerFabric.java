@@ -29,7 +29,9 @@ import net.draycia.carbon.api.users.UserManager;
 import net.kyori.adventure.audience.Audience;
 import net.kyori.adventure.audience.ForwardingAudience;
 import net.kyori.adventure.platform.fabric.FabricServerAudiences;
+import net.minecraft.server.MinecraftServer;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.framework.qual.DefaultQualifier;
 import org.jetbrains.annotations.NotNull;
 
@@ -58,7 +60,12 @@ public final class CarbonServerFabric implements CarbonServer, ForwardingAudienc
 
     @Override
     public List<? extends CarbonPlayer> players() {
-        return this.serverHolder.requireServer().getPlayerList().getPlayers().stream()
+        final @Nullable MinecraftServer server = this.serverHolder.server();
+        if (server == null) {
+            // mod init runs before the server starts
+            return List.of();
+        }
+        return server.getPlayerList().getPlayers().stream()
             .map(serverPlayer -> this.userManager.user(serverPlayer.getUUID()).getNow(null))
             .filter(Objects::nonNull)
             .toList();
@@ -40,6 +40,10 @@ public final class MinecraftServerHolder {
         ServerLifecycleEvents.SERVER_STOPPED.register(server -> this.server = null);
     }
 
+    public @Nullable MinecraftServer server() {
+        return this.server;
+    }
+
     public MinecraftServer requireServer() {
         return Objects.requireNonNull(this.server, "server requested when not active");
     }
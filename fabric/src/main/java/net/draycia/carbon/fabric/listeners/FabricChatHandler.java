@@ -26,6 +26,7 @@ import net.draycia.carbon.common.config.ConfigManager;
 import net.draycia.carbon.common.event.events.CarbonChatEventImpl;
 import net.draycia.carbon.common.listeners.ChatListenerInternal;
 import net.draycia.carbon.common.messages.CarbonMessages;
+import net.draycia.carbon.common.metrics.CarbonMetrics;
 import net.draycia.carbon.fabric.CarbonChatFabric;
 import net.draycia.carbon.fabric.users.CarbonPlayerFabric;
 import net.fabricmc.fabric.api.message.v1.ServerMessageEvents;
@@ -56,9 +57,10 @@ public class FabricChatHandler extends ChatListenerInternal implements ServerMes
     public FabricChatHandler(
         final ConfigManager configManager,
         final CarbonChatFabric carbonChat,
-        final CarbonMessages carbonMessages
+        final CarbonMessages carbonMessages,
+        final CarbonMetrics metrics
     ) {
-        super(carbonChat.eventHandler(), carbonMessages, configManager);
+        super(carbonChat.eventHandler(), carbonMessages, configManager, metrics);
         this.carbonChat = carbonChat;
     }
 
@@ -78,7 +80,7 @@ public class FabricChatHandler extends ChatListenerInternal implements ServerMes
         }
 
         for (final var recipient : chatEvent.recipients()) {
-            final Component finishedMessage = chatEvent.renderFor(recipient);
+            final Component finishedMessage = this.renderFor(chatEvent, recipient);
 
             final net.minecraft.network.chat.Component nativeMessage = FabricAudiences.nonWrappingSerializer().serialize(finishedMessage);
             final PlayerChatMessage customChatMessage = new PlayerChatMessage(chatMessage.link(), chatMessage.signature(), chatMessage.signedBody(), nativeMessage, FilterMask.FULLY_FILTERED);
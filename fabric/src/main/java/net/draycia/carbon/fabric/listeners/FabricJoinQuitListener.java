@@ -20,11 +20,9 @@
 package net.draycia.carbon.fabric.listeners;
 
 import com.google.inject.Inject;
-import com.google.inject.Provider;
 import java.util.List;
 import net.draycia.carbon.common.config.ConfigManager;
-import net.draycia.carbon.common.messaging.MessagingManager;
-import net.draycia.carbon.common.messaging.packets.PacketFactory;
+import net.draycia.carbon.common.users.NetworkUsers;
 import net.draycia.carbon.common.users.ProfileCache;
 import net.draycia.carbon.common.users.UserManagerInternal;
 import net.fabricmc.fabric.api.networking.v1.PacketSender;
@@ -46,8 +44,7 @@ public class FabricJoinQuitListener implements ServerPlayConnectionEvents.Join,
     private final Logger logger;
     private final ConfigManager configManager;
     private final UserManagerInternal<?> userManager;
-    private final Provider<MessagingManager> messaging;
-    private final PacketFactory packetFactory;
+    private final NetworkUsers networkUsers;
 
     @Inject
     public FabricJoinQuitListener(
@@ -55,21 +52,19 @@ public class FabricJoinQuitListener implements ServerPlayConnectionEvents.Join,
         final ConfigManager configManager,
         final ProfileCache profileCache,
         final UserManagerInternal<?> userManager,
-        final Provider<MessagingManager> messaging,
-        final PacketFactory packetFactory
+        final NetworkUsers networkUsers
     ) {
         this.logger = logger;
         this.configManager = configManager;
         this.profileCache = profileCache;
         this.userManager = userManager;
-        this.messaging = messaging;
-        this.packetFactory = packetFactory;
+        this.networkUsers = networkUsers;
     }
 
     @Override
     public void onPlayReady(final ServerGamePacketListenerImpl handler, final PacketSender sender, final MinecraftServer server) {
         this.profileCache.cache(handler.getPlayer().getUUID(), handler.getPlayer().getGameProfile().getName());
-        this.messaging.get().queuePacket(() -> this.packetFactory.addLocalPlayerPacket(handler.getPlayer().getUUID(), handler.getPlayer().getGameProfile().getName()));
+        this.networkUsers.localPlayerJoined(handler.getPlayer().getUUID(), handler.getPlayer().getGameProfile().getName());
 
         final @Nullable List<String> suggestions = this.configManager.primaryConfig().customChatSuggestions();
 
@@ -45,6 +45,7 @@ import net.draycia.carbon.paper.integration.mcmmo.McmmoIntegration;
 import net.draycia.carbon.paper.integration.towny.TownyIntegration;
 import net.draycia.carbon.paper.listeners.PaperChatListener;
 import net.draycia.carbon.paper.listeners.PaperPlayerJoinListener;
+import net.draycia.carbon.paper.listeners.PaperPlayerPositionListener;
 import net.draycia.carbon.paper.messages.PaperMessageRenderer;
 import net.draycia.carbon.paper.users.CarbonPlayerPaper;
 import net.draycia.carbon.paper.users.PaperProfileResolver;
@@ -129,6 +130,7 @@ public final class CarbonChatPaperModule extends CarbonPlatformModule {
         final Multibinder<Listener> listeners = Multibinder.newSetBinder(this.binder(), Listener.class);
         listeners.addBinding().to(PaperChatListener.class);
         listeners.addBinding().to(PaperPlayerJoinListener.class);
+        listeners.addBinding().to(PaperPlayerPositionListener.class);
     }
 
 }
@@ -19,16 +19,26 @@
  */
 package net.draycia.carbon.paper.hooks;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.inject.Inject;
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import me.clip.placeholderapi.expansion.PlaceholderExpansion;
 import net.draycia.carbon.api.channels.ChannelRegistry;
 import net.draycia.carbon.api.channels.ChatChannel;
 import net.draycia.carbon.api.users.CarbonPlayer;
 import net.draycia.carbon.api.users.Party;
-import net.draycia.carbon.api.users.UserManager;
+import net.draycia.carbon.common.config.ConfigManager;
+import net.draycia.carbon.common.users.UserManagerInternal;
+import net.draycia.carbon.common.users.WrappedCarbonPlayer;
+import net.kyori.adventure.key.Key;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.minimessage.MiniMessage;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
@@ -38,32 +48,40 @@ import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.framework.qual.DefaultQualifier;
 
+/**
+ * PlaceholderAPI expansion.
+ *
+ * <p>Scoreboard and tab plugins poll these many times per tick, so each player's placeholders are
+ * serialized once into a {@link Snapshot}, and only rebuilt when their nickname, party, selected
+ * channel or the config changes. Requests never wait on a user or party load, until one finishes
+ * they resolve to an empty string.</p>
+ */
 @DefaultQualifier(NonNull.class)
 public class CarbonPAPIPlaceholders extends PlaceholderExpansion {
 
-    private final UserManager<?> userManager;
+    private static final Set<String> PARAMS = Set.of(
+        "party", "party_l", "nickname", "nickname_l", "displayname", "displayname_l", "channel_key"
+    );
+
+    private final UserManagerInternal<?> userManager;
     private final ChannelRegistry channels;
+    private final ConfigManager configManager;
     private final JavaPlugin plugin;
-    private final Map<String, Function<OfflinePlayer, Component>> componentResolvers;
-    private final Map<String, Function<OfflinePlayer, String>> stringResolvers;
+    private final Cache<UUID, Snapshot> snapshots = Caffeine.newBuilder()
+        .expireAfterAccess(Duration.ofMinutes(10))
+        .build();
 
     @Inject
     public CarbonPAPIPlaceholders(
-        final UserManager<?> userManager,
+        final UserManagerInternal<?> userManager,
         final ChannelRegistry channels,
+        final ConfigManager configManager,
         final JavaPlugin plugin
     ) {
         this.userManager = userManager;
         this.channels = channels;
+        this.configManager = configManager;
         this.plugin = plugin;
-        this.componentResolvers = Map.of(
-            "party", this::partyName,
-            "nickname", this::nickname,
-            "displayname", this::displayName
-        );
-        this.stringResolvers = Map.of(
-            "channel_key", this::selectedChannelKey
-        );
         this.register();
     }
 
@@ -89,54 +107,97 @@ public class CarbonPAPIPlaceholders extends PlaceholderExpansion {
 
     @Override
     public @Nullable String onRequest(final OfflinePlayer player, final String params) {
-        for (final Map.Entry<String, Function<OfflinePlayer, Component>> entry : this.componentResolvers.entrySet()) {
-            if (params.endsWith(entry.getKey())) {
-                return mm(entry.getValue().apply(player));
-            } else if (params.endsWith(entry.getKey() + "_l")) {
-                return legacy(entry.getValue().apply(player));
-            }
+        final @Nullable String param = param(params);
+        if (param == null) {
+            return null;
         }
 
-        for (final Map.Entry<String, Function<OfflinePlayer, String>> entry : this.stringResolvers.entrySet()) {
-            if (params.endsWith(entry.getKey())) {
-                return entry.getValue().apply(player);
-            }
+        final @Nullable CarbonPlayer carbonPlayer = this.user(player.getUniqueId());
+        if (carbonPlayer == null) {
+            return "";
         }
 
-        return null;
+        return this.snapshot(carbonPlayer).values().get(param);
     }
 
-    private static String mm(final Component in) {
-        return MiniMessage.miniMessage().serialize(in);
+    // placeholders used to be matched by suffix, keep accepting anything ending in a known param
+    private static @Nullable String param(final String params) {
+        if (PARAMS.contains(params)) {
+            return params;
+        }
+        for (final String param : PARAMS) {
+            if (params.endsWith(param)) {
+                return param;
+            }
+        }
+        return null;
     }
 
-    private static String legacy(final Component in) {
-        return LegacyComponentSerializer.legacySection().serialize(in);
+    private @Nullable CarbonPlayer user(final UUID id) {
+        final @Nullable CarbonPlayer online = this.userManager.onlineUser(id);
+        if (online != null) {
+            return online;
+        }
+        return this.userManager.user(id).getNow(null);
     }
 
-    private Component partyName(final OfflinePlayer player) {
-        final @Nullable Party party = this.userManager.user(player.getUniqueId()).thenCompose(CarbonPlayer::party).join();
-        return party == null ? Component.empty() : party.name();
-    }
+    private Snapshot snapshot(final CarbonPlayer player) {
+        final @Nullable Snapshot cached = this.snapshots.getIfPresent(player.uuid());
+        final Object config = this.configManager.primaryConfig();
+        final @Nullable UUID partyId = player instanceof WrappedCarbonPlayer wrapped ? wrapped.partyId() : null;
+        final @Nullable ChatChannel selected = player.selectedChannel();
+        final Key channel = selected == null ? this.channels.defaultKey() : selected.key();
+        final @Nullable Component nickname = player.nickname();
+        // without a nickname the display name comes straight from the platform, and other plugins may change it
+        final @Nullable Component platformDisplayName = nickname == null ? player.displayName() : null;
+
+        if (cached != null
+            && cached.nickname() == nickname
+            && Objects.equals(cached.platformDisplayName(), platformDisplayName)
+            && cached.config() == config
+            && Objects.equals(cached.partyId(), partyId)
+            && cached.channel().equals(channel)
+            && cached.partyResolved()) {
+            return cached;
+        }
+
+        final Map<String, String> values = new HashMap<>();
+
+        this.put(values, "nickname", nickname == null ? Component.text(player.username()) : nickname);
+        this.put(values, "displayname", platformDisplayName == null ? player.displayName() : platformDisplayName);
 
-    private Component displayName(final OfflinePlayer player) {
-        final CarbonPlayer carbonPlayer = this.userManager.user(player.getUniqueId()).join();
-        return carbonPlayer.displayName();
+        final boolean partyResolved;
+        if (partyId == null) {
+            this.put(values, "party", Component.empty());
+            partyResolved = true;
+        } else {
+            final CompletableFuture<@Nullable Party> party = this.userManager.party(partyId);
+            final @Nullable Party loaded = party.getNow(null);
+            this.put(values, "party", loaded == null ? Component.empty() : loaded.name());
+            partyResolved = party.isDone();
+        }
+
+        values.put("channel_key", channel.asString());
+
+        final Snapshot snapshot = new Snapshot(nickname, platformDisplayName, config, partyId, channel, partyResolved, Map.copyOf(values));
+        this.snapshots.put(player.uuid(), snapshot);
+        return snapshot;
     }
 
-    private Component nickname(final OfflinePlayer player) {
-        final CarbonPlayer carbonPlayer = this.userManager.user(player.getUniqueId()).join();
-        final @Nullable Component nickname = carbonPlayer.nickname();
-        return nickname == null ? Component.text(carbonPlayer.username()) : nickname;
+    private void put(final Map<String, String> values, final String key, final Component component) {
+        values.put(key, MiniMessage.miniMessage().serialize(component));
+        values.put(key + "_l", LegacyComponentSerializer.legacySection().serialize(component));
     }
 
-    private String selectedChannelKey(final OfflinePlayer player) {
-        final CarbonPlayer carbonPlayer = this.userManager.user(player.getUniqueId()).join();
-        final @Nullable ChatChannel selected = carbonPlayer.selectedChannel();
-        if (selected != null) {
-            return selected.key().asString();
-        }
-        return this.channels.defaultKey().asString();
+    private record Snapshot(
+        @Nullable Component nickname,
+        @Nullable Component platformDisplayName,
+        Object config,
+        @Nullable UUID partyId,
+        Key channel,
+        boolean partyResolved,
+        Map<String, String> values
+    ) {
     }
 
 }
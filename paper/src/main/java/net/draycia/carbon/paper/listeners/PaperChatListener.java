@@ -21,12 +21,15 @@ package net.draycia.carbon.paper.listeners;
 
 import com.google.inject.Inject;
 import io.papermc.paper.event.player.AsyncChatEvent;
+import java.util.UUID;
 import net.draycia.carbon.api.CarbonChat;
 import net.draycia.carbon.api.users.CarbonPlayer;
 import net.draycia.carbon.common.config.ConfigManager;
 import net.draycia.carbon.common.event.events.CarbonChatEventImpl;
 import net.draycia.carbon.common.listeners.ChatListenerInternal;
 import net.draycia.carbon.common.messages.CarbonMessages;
+import net.draycia.carbon.common.metrics.CarbonMetrics;
+import net.draycia.carbon.common.users.UserManagerInternal;
 import net.kyori.adventure.audience.Audience;
 import net.kyori.adventure.identity.Identity;
 import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
@@ -40,23 +43,34 @@ import org.checkerframework.framework.qual.DefaultQualifier;
 @DefaultQualifier(NonNull.class)
 public final class PaperChatListener extends ChatListenerInternal implements Listener {
 
-    private final CarbonChat carbonChat;
+    private final UserManagerInternal<?> userManager;
     final ConfigManager configManager;
 
     @Inject
     public PaperChatListener(
         final CarbonChat carbonChat,
         final CarbonMessages carbonMessages,
-        final ConfigManager configManager
+        final ConfigManager configManager,
+        final UserManagerInternal<?> userManager,
+        final CarbonMetrics metrics
     ) {
-        super(carbonChat.eventHandler(), carbonMessages, configManager);
-        this.carbonChat = carbonChat;
+        super(carbonChat.eventHandler(), carbonMessages, configManager, metrics);
+        this.userManager = userManager;
         this.configManager = configManager;
     }
 
+    // online players are normally loaded by the time they can chat, only fall back to a blocking load if not
+    private CarbonPlayer user(final UUID uuid) {
+        final @Nullable CarbonPlayer online = this.userManager.onlineUser(uuid);
+        if (online != null) {
+            return online;
+        }
+        return this.userManager.user(uuid).join();
+    }
+
     @EventHandler(ignoreCancelled = true, priority = EventPriority.HIGHEST)
     public void onPaperChat(final @NonNull AsyncChatEvent event) {
-        final @Nullable CarbonPlayer sender = this.carbonChat.userManager().user(event.getPlayer().getUniqueId()).join();
+        final CarbonPlayer sender = this.user(event.getPlayer().getUniqueId());
 
         if (event.viewers().isEmpty()) {
             return;
@@ -82,12 +96,12 @@ public final class PaperChatListener extends ChatListenerInternal implements Lis
             final Audience recipientViewer;
 
             if (recipientUUID.isPresent()) {
-                recipientViewer = this.carbonChat.userManager().user(recipientUUID.get()).join();
+                recipientViewer = this.user(recipientUUID.get());
             } else {
                 recipientViewer = recipient;
             }
 
-            return chatEvent.renderFor(recipientViewer);
+            return this.renderFor(chatEvent, recipientViewer);
         });
     }
 
@@ -20,11 +20,9 @@
 package net.draycia.carbon.paper.listeners;
 
 import com.google.inject.Inject;
-import com.google.inject.Provider;
 import java.util.List;
 import net.draycia.carbon.common.config.ConfigManager;
-import net.draycia.carbon.common.messaging.MessagingManager;
-import net.draycia.carbon.common.messaging.packets.PacketFactory;
+import net.draycia.carbon.common.users.NetworkUsers;
 import net.draycia.carbon.common.users.ProfileCache;
 import net.draycia.carbon.common.users.UserManagerInternal;
 import org.apache.logging.log4j.Logger;
@@ -48,8 +46,7 @@ public class PaperPlayerJoinListener implements Listener {
     private final Logger logger;
     private final ProfileCache profileCache;
     private final UserManagerInternal<?> userManager;
-    private final Provider<MessagingManager> messaging;
-    private final PacketFactory packetFactory;
+    private final NetworkUsers networkUsers;
 
     @Inject
     public PaperPlayerJoinListener(
@@ -57,15 +54,13 @@ public class PaperPlayerJoinListener implements Listener {
         final Logger logger,
         final ProfileCache profileCache,
         final UserManagerInternal<?> userManager,
-        final Provider<MessagingManager> messaging,
-        final PacketFactory packetFactory
+        final NetworkUsers networkUsers
     ) {
         this.configManager = configManager;
         this.logger = logger;
         this.profileCache = profileCache;
         this.userManager = userManager;
-        this.messaging = messaging;
-        this.packetFactory = packetFactory;
+        this.networkUsers = networkUsers;
     }
 
     @EventHandler
@@ -75,7 +70,7 @@ public class PaperPlayerJoinListener implements Listener {
 
     @EventHandler(priority = EventPriority.LOWEST)
     public void onJoinEarly(final PlayerJoinEvent event) {
-        this.messaging.get().queuePacket(() -> this.packetFactory.addLocalPlayerPacket(event.getPlayer().getUniqueId(), event.getPlayer().getName()));
+        this.networkUsers.localPlayerJoined(event.getPlayer().getUniqueId(), event.getPlayer().getName());
     }
 
     @EventHandler(priority = EventPriority.HIGH)
@@ -0,0 +1,120 @@
+/*
+ * CarbonChat
+ *
+ * Copyright (c) 2024 Josua Parks (Vicarious)
+ *                    Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.draycia.carbon.paper.listeners;
+
+import com.google.inject.Inject;
+import net.draycia.carbon.common.users.PlayerPositionIndex;
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.event.vehicle.VehicleMoveEvent;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.framework.qual.DefaultQualifier;
+import org.spigotmc.event.entity.EntityDismountEvent;
+
+/**
+ * Keeps the {@link PlayerPositionIndex} up to date with player movement.
+ *
+ * <p>Positions are only pushed when a player crosses a block boundary or changes worlds,
+ * so radius checks are accurate to the block. Bukkit doesn't fire move events for players riding
+ * a vehicle, so their positions are pushed from the vehicle's movement instead.</p>
+ */
+@DefaultQualifier(NonNull.class)
+public class PaperPlayerPositionListener implements Listener {
+
+    private final PlayerPositionIndex positions;
+
+    @Inject
+    public PaperPlayerPositionListener(final PlayerPositionIndex positions) {
+        this.positions = positions;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(final PlayerJoinEvent event) {
+        this.update(event.getPlayer(), event.getPlayer().getLocation());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onMove(final PlayerMoveEvent event) {
+        if (event.hasChangedBlock()) {
+            this.update(event.getPlayer(), event.getTo());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onVehicleMove(final VehicleMoveEvent event) {
+        final Location from = event.getFrom();
+        final Location to = event.getTo();
+        if (from.getBlockX() != to.getBlockX() || from.getBlockY() != to.getBlockY() || from.getBlockZ() != to.getBlockZ()) {
+            this.updatePassengers(event.getVehicle(), to);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onDismount(final EntityDismountEvent event) {
+        if (event.getEntity() instanceof Player player) {
+            this.update(player, player.getLocation());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onTeleport(final PlayerTeleportEvent event) {
+        this.update(event.getPlayer(), event.getTo());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRespawn(final PlayerRespawnEvent event) {
+        this.update(event.getPlayer(), event.getRespawnLocation());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChangedWorld(final PlayerChangedWorldEvent event) {
+        this.update(event.getPlayer(), event.getPlayer().getLocation());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(final PlayerQuitEvent event) {
+        this.positions.remove(event.getPlayer().getUniqueId());
+    }
+
+    // passengers can be stacked, such as a player riding a mob in a boat
+    private void updatePassengers(final Entity vehicle, final Location location) {
+        for (final Entity passenger : vehicle.getPassengers()) {
+            if (passenger instanceof Player player) {
+                this.update(player, location);
+            }
+            this.updatePassengers(passenger, location);
+        }
+    }
+
+    private void update(final Player player, final Location location) {
+        this.positions.update(player.getUniqueId(), location.getWorld().getKey(), location.getX(), location.getY(), location.getZ());
+    }
+
+}
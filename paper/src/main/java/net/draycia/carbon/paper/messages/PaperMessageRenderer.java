@@ -31,6 +31,7 @@ import net.draycia.carbon.api.users.CarbonPlayer;
 import net.draycia.carbon.common.config.ConfigManager;
 import net.draycia.carbon.common.integration.miniplaceholders.MiniPlaceholdersExpansion;
 import net.draycia.carbon.common.messages.CarbonMessageRenderer;
+import net.draycia.carbon.common.messages.MessageTemplates;
 import net.draycia.carbon.common.messages.SourcedAudience;
 import net.draycia.carbon.common.users.ConsoleCarbonPlayer;
 import net.draycia.carbon.paper.CarbonChatPaper;
@@ -59,11 +60,13 @@ public class PaperMessageRenderer implements CarbonMessageRenderer {
     });
 
     private final MiniMessage miniMessage;
+    private final MessageTemplates templates;
     private final ConfigManager configManager;
 
     @Inject
     public PaperMessageRenderer(final ConfigManager configManager) {
         this.miniMessage = MiniMessage.miniMessage();
+        this.templates = new MessageTemplates(this.miniMessage);
         this.configManager = configManager;
     }
 
@@ -81,6 +84,15 @@ public class PaperMessageRenderer implements CarbonMessageRenderer {
 
         final String placeholderResolvedMessage = this.configManager.primaryConfig().applyCustomPlaceholders(intermediateMessage);
 
+        // without PlaceholderAPI or MiniPlaceholders placeholders, the message only depends on its own placeholders
+        if (!MiniPlaceholdersExpansion.miniPlaceholdersLoaded()
+            && (!this.hasPlaceholderAPI() || placeholderResolvedMessage.indexOf('%') == -1)) {
+            final @Nullable Component templated = this.templates.render(placeholderResolvedMessage, resolvedPlaceholders);
+            if (templated != null) {
+                return templated;
+            }
+        }
+
         if (MiniPlaceholdersExpansion.miniPlaceholdersLoaded()) {
             tagResolver.resolver(MiniPlaceholders.getGlobalPlaceholders());
         }
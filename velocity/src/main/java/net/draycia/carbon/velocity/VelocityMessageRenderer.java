@@ -28,6 +28,7 @@ import java.lang.reflect.Type;
 import java.util.Map;
 import net.draycia.carbon.common.config.ConfigManager;
 import net.draycia.carbon.common.messages.CarbonMessageRenderer;
+import net.draycia.carbon.common.messages.MessageTemplates;
 import net.draycia.carbon.common.messages.SourcedAudience;
 import net.draycia.carbon.common.users.ConsoleCarbonPlayer;
 import net.draycia.carbon.velocity.users.CarbonPlayerVelocity;
@@ -36,12 +37,14 @@ import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.minimessage.MiniMessage;
 import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.framework.qual.DefaultQualifier;
 
 @DefaultQualifier(NonNull.class)
 @Singleton
 public class VelocityMessageRenderer implements CarbonMessageRenderer {
 
+    private final MessageTemplates templates = new MessageTemplates(MiniMessage.miniMessage());
     private final ConfigManager configManager;
     private final PluginManager pluginManager;
 
@@ -65,6 +68,14 @@ public class VelocityMessageRenderer implements CarbonMessageRenderer {
 
         final String placeholderResolvedMessage = this.configManager.primaryConfig().applyCustomPlaceholders(intermediateMessage);
 
+        // without MiniPlaceholders, the message only depends on its own placeholders
+        if (!this.pluginManager.isLoaded("miniplaceholders")) {
+            final @Nullable Component templated = this.templates.render(placeholderResolvedMessage, resolvedPlaceholders);
+            if (templated != null) {
+                return templated;
+            }
+        }
+
         if (this.pluginManager.isLoaded("miniplaceholders")) {
             tagResolver.resolver(MiniPlaceholders.getGlobalPlaceholders());
 
@@ -37,6 +37,7 @@ import net.draycia.carbon.common.config.ConfigManager;
 import net.draycia.carbon.common.event.events.CarbonChatEventImpl;
 import net.draycia.carbon.common.listeners.ChatListenerInternal;
 import net.draycia.carbon.common.messages.CarbonMessages;
+import net.draycia.carbon.common.metrics.CarbonMetrics;
 import net.draycia.carbon.velocity.CarbonVelocityBootstrap;
 import net.kyori.adventure.audience.Audience;
 import org.checkerframework.checker.nullness.qual.NonNull;
@@ -60,9 +61,10 @@ public final class VelocityChatListener extends ChatListenerInternal implements
         final Logger logger,
         final PluginManager pluginManager,
         final CarbonMessages carbonMessages,
-        final ConfigManager configManager
+        final ConfigManager configManager,
+        final CarbonMetrics metrics
     ) {
-        super(carbonChat.eventHandler(), carbonMessages, configManager);
+        super(carbonChat.eventHandler(), carbonMessages, configManager, metrics);
         this.userManager = userManager;
         this.logger = logger;
         this.configManager = configManager;
@@ -120,7 +122,7 @@ public final class VelocityChatListener extends ChatListenerInternal implements
         }
 
         for (final Audience recipient : chatEvent.recipients()) {
-            recipient.sendMessage(chatEvent.renderFor(recipient));
+            recipient.sendMessage(this.renderFor(chatEvent, recipient));
         }
     }
 
@@ -25,6 +25,7 @@ import com.velocitypowered.api.event.EventTask;
 import com.velocitypowered.api.event.connection.LoginEvent;
 import java.util.List;
 import net.draycia.carbon.common.config.ConfigManager;
+import net.draycia.carbon.common.users.NetworkUsers;
 import net.draycia.carbon.common.users.UserManagerInternal;
 import net.draycia.carbon.velocity.CarbonVelocityBootstrap;
 import org.apache.logging.log4j.Logger;
@@ -40,16 +41,19 @@ public class VelocityPlayerJoinListener implements VelocityListener<LoginEvent>
     private final ConfigManager configManager;
     private final UserManagerInternal<?> userManager;
     private final Logger logger;
+    private final NetworkUsers networkUsers;
 
     @Inject
     public VelocityPlayerJoinListener(
         final ConfigManager configManager,
         final UserManagerInternal<?> userManager,
-        final Logger logger
+        final Logger logger,
+        final NetworkUsers networkUsers
     ) {
         this.configManager = configManager;
         this.userManager = userManager;
         this.logger = logger;
+        this.networkUsers = networkUsers;
     }
 
     @Override
@@ -62,6 +66,7 @@ public class VelocityPlayerJoinListener implements VelocityListener<LoginEvent>
         return EventTask.async(
             () -> {
                 this.userManager.user(event.getPlayer().getUniqueId()).exceptionally(joinExceptionHandler(this.logger, event.getPlayer().getUsername(), event.getPlayer().getUniqueId()));
+                this.networkUsers.localPlayerJoined(event.getPlayer().getUniqueId(), event.getPlayer().getUsername());
 
                 final @Nullable List<String> suggestions = this.configManager.primaryConfig().customChatSuggestions();
 